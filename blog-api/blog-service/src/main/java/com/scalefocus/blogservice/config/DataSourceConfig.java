@@ -0,0 +1,86 @@
+package com.scalefocus.blogservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${app.datasource-replica-urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource-replica-max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${app.datasource-replica-lag-check-milliseconds:1000}")
+    private long lagCheckInterval;
+
+    /**
+     * The primary pool alone when no replica is configured, otherwise a router that sends
+     * read-only transactions to the replicas.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource primary = hikariDataSource(dataSourceProperties, environment, dataSourceProperties.determineUrl());
+        primary.setPoolName("blog-primary");
+        if (replicaUrls.isEmpty()) {
+            return primary;
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = hikariDataSource(dataSourceProperties, environment, replicaUrls.get(i));
+            replica.setPoolName("blog-replica-" + i);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replicas,
+                ReadWriteRoutingDataSource::readMysqlReplicaLag, maxLagSeconds);
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.startLagChecks(lagCheckInterval);
+        return new RoutingDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource hikariDataSource(DataSourceProperties dataSourceProperties, Environment environment, String url) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    /**
+     * Gives the bean a close method, so the context shuts the router's pools and lag checks down with it.
+     */
+    static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        RoutingDataSourceProxy(ReadWriteRoutingDataSource routingDataSource) {
+            super(routingDataSource);
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Override
+        public void close() {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.scalefocus.blogservice.config;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DeserializationException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.topic}")
+    private String topic;
+
+    @Value("${app.elastic-sync-dlt-suffix:elastic-blog-event-dlt}")
+    private String dltSuffix;
+
+    @Value("${app.blog-index-listener-concurrency:3}")
+    private int concurrency;
+
+    /*
+    batch listeners cannot use retry topics, so a failed record is retried in place 3 times with the
+    backoff the retry topics used, then published to the DLT and the rest of the batch goes on
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> blogIndexBatchListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            ProducerFactory<Object, Object> producerFactory,
+            KafkaTemplate<Long, Object> kafkaTemplate) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(3);
+        backOff.setInitialInterval(1000);
+        backOff.setMultiplier(2);
+
+        KafkaTemplate<Object, Object> rawValueTemplate = new KafkaTemplate<>(producerFactory,
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+        DeadLetterPublishingRecoverer recoverer = deadLetterRecoverer(topic + dltSuffix, rawValueTemplate, kafkaTemplate);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(DeserializationException.class, IllegalArgumentException.class);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /*
+    a record that could not be decoded reaches the recoverer with its raw bytes as the value, which the blog
+    event serializer cannot write, so byte arrays and delete events without a value go through a byte array template
+     */
+    static DeadLetterPublishingRecoverer deadLetterRecoverer(String deadLetterTopic,
+                                                             KafkaOperations<?, ?> rawValueTemplate,
+                                                             KafkaOperations<?, ?> blogEventTemplate) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, rawValueTemplate);
+        templates.put(ElasticBlogDocument.class, blogEventTemplate);
+        return new DeadLetterPublishingRecoverer(templates,
+                (record, exception) -> new TopicPartition(deadLetterTopic, -1));
+    }
+}
@@ -12,10 +12,24 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.topic}")
     private String topic;
 
+    @Value("${app.elastic-sync-dlt-suffix:elastic-blog-event-dlt}")
+    private String dltSuffix;
+
+    @Value("${app.blog-event-partitions:3}")
+    private int partitions;
+
     @Bean
     public NewTopic blogSavedEvent() {
         return TopicBuilder.name(topic)
-                .partitions(3)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic blogSavedEventDlt() {
+        return TopicBuilder.name(topic + dltSuffix)
+                .partitions(1)
                 .replicas(1)
                 .build();
     }
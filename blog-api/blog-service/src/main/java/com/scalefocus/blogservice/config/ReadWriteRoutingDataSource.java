@@ -0,0 +1,162 @@
+package com.scalefocus.blogservice.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions round-robin to the replicas whose replication lag is
+ * within the limit, and everything else to the primary. Reads fall back to the primary while no replica
+ * is healthy. Must be wrapped in a LazyConnectionDataSourceProxy, so the connection is only taken once
+ * the transaction is marked read-only. Closing it stops the lag checks and closes the primary and replica pools.
+ * Reads that must see a write made just before, which a lagging replica may not have yet, are pinned to the
+ * primary explicitly with {@link #readFromPrimary(Supplier)}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Function<DataSource, OptionalLong> lagProbe;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+    private ScheduledExecutorService lagCheckScheduler;
+
+    public ReadWriteRoutingDataSource(DataSource primary,
+                                      Map<String, DataSource> replicas,
+                                      Function<DataSource, OptionalLong> lagProbe,
+                                      long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.lagProbe = lagProbe;
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(PRIMARY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || Boolean.TRUE.equals(PRIMARY_PINNED.get())) {
+            return PRIMARY;
+        }
+        List<String> replicaKeys = healthyReplicas;
+        if (replicaKeys.isEmpty()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Runs the read with every connection it takes routed to the primary, read-only transactions included.
+     * A connection the surrounding transaction already holds is not switched, so call it before that
+     * transaction has run a statement, or outside of one.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        if (Boolean.TRUE.equals(PRIMARY_PINNED.get())) {
+            return read.get();
+        }
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    public synchronized void startLagChecks(long intervalMilliseconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicaLag, 0, intervalMilliseconds, TimeUnit.MILLISECONDS);
+        lagCheckScheduler = scheduler;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (lagCheckScheduler != null) {
+            lagCheckScheduler.shutdownNow();
+            lagCheckScheduler = null;
+        }
+        replicas.values().forEach(ReadWriteRoutingDataSource::closePool);
+        closePool(primary);
+    }
+
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close datasource: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keeps only the replicas that report a lag within the limit. Unreachable replicas and replicas
+     * that are not replicating are left out until a later check sees them caught up.
+     */
+    public void checkReplicaLag() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        replicas.forEach((key, replica) -> {
+            OptionalLong lag = lagProbe.apply(replica);
+            if (lag.isPresent() && lag.getAsLong() <= maxLagSeconds) {
+                healthy.add(key);
+            } else if (healthyReplicas.contains(key)) {
+                LOGGER.warn("Replica {} taken out of read routing, lag: {}", key, lag.isPresent() ? lag.getAsLong() + "s" : "unknown");
+            }
+        });
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    /**
+     * Reads Seconds_Behind_Source of a MySQL replica. Empty when the lag is unknown.
+     */
+    public static OptionalLong readMysqlReplicaLag(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return OptionalLong.empty();
+            }
+            long lag = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? OptionalLong.empty() : OptionalLong.of(lag);
+        } catch (SQLException e) {
+            LOGGER.warn("Replica lag check failed: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.scalefocus.blogservice.config;
 
 import com.scalefocus.blogservice.service.impl.AuthorizationInterceptor;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
 
@@ -14,10 +26,59 @@ import java.util.List;
 @Configuration
 public class RestClientConfig {
 
+    @Value("${app.http-client-max-connections:200}")
+    private int maxConnections;
+
+    @Value("${app.http-client-max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.http-client-connect-timeout-milliseconds:1000}")
+    private long connectTimeout;
+
+    @Value("${app.http-client-read-timeout-milliseconds:3000}")
+    private long readTimeout;
+
+    @Value("${app.http-client-connection-request-timeout-milliseconds:500}")
+    private long connectionRequestTimeout;
+
+    @Value("${app.http-client-idle-eviction-milliseconds:30000}")
+    private long idleEviction;
+
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction))
+                .build();
+    }
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpClientConnectionManager, "user-service");
+    }
+
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
 
         List<ClientHttpRequestInterceptor> interceptors
                 = restTemplate.getInterceptors();
@@ -28,4 +89,4 @@ public class RestClientConfig {
         restTemplate.setInterceptors(interceptors);
         return restTemplate;
     }
-}
\ No newline at end of file
+}
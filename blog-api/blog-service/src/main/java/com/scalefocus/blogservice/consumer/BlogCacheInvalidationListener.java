@@ -0,0 +1,48 @@
+package com.scalefocus.blogservice.consumer;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.entity.ElasticTag;
+import com.scalefocus.blogservice.utils.BlogCache;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import com.scalefocus.blogservice.utils.TagIndex;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies blog changes made on any instance to the local blog cache and tag index.
+ * Every instance joins with its own group id, so each one sees every blog event.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogCacheInvalidationListener {
+
+    private static final Logger LOGGER = LogManager.getLogger(BlogCacheInvalidationListener.class);
+
+    private final BlogCache blogCache;
+    private final TagIndex tagIndex;
+
+    @KafkaListener(topics = {"${spring.kafka.topic}"},
+            groupId = "blog-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = {"auto.offset.reset=latest"})
+    public void evictBlog(ConsumerRecord<Long, ElasticBlogDocument> record) {
+        Long blogId = BlogEventHeaders.blogId(record);
+        if (blogId == null) {
+            return;
+        }
+        blogCache.evict(blogId);
+        if (BlogEventHeaders.isDelete(record)) {
+            tagIndex.removeBlog(blogId);
+        } else if (record.value() != null) {
+            ElasticBlogDocument blog = record.value();
+            List<String> tagNames = blog.getTags() == null ? List.of() : blog.getTags().stream().map(ElasticTag::getName).toList();
+            tagIndex.replace(blogId, tagNames);
+        }
+        LOGGER.debug("Applied blog event for blog with id {}", blogId);
+    }
+}
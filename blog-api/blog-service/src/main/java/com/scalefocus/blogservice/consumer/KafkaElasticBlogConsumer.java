@@ -1,55 +1,153 @@
 package com.scalefocus.blogservice.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
 import com.scalefocus.blogservice.repository.ElasticBlogRepository;
-import lombok.RequiredArgsConstructor;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.hibernate.type.SerializationException;
-import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.annotation.RetryableTopic;
-import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
-import org.springframework.kafka.support.serializer.DeserializationException;
-import org.springframework.retry.annotation.Backoff;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Applies a poll's worth of blog events to elasticsearch with one bulk request. Only the latest event per
+ * blog in the batch is written, so rapid edits of a blog become one write. Everything that can be applied
+ * is applied first; the lowest index among the records that were not is then reported, so the error handler
+ * commits the records before it, retries from it and finally sends it to the DLT.
+ */
 @Component
 @EnableKafka
-@RequiredArgsConstructor
 public class KafkaElasticBlogConsumer {
 
     private static final Logger LOGGER = LogManager.getLogger(KafkaElasticBlogConsumer.class);
-    private final ObjectMapper objectMapper;
     private final ElasticBlogRepository elasticBlogRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public KafkaElasticBlogConsumer(ElasticBlogRepository elasticBlogRepository,
+                                    ElasticsearchOperations elasticsearchOperations,
+                                    MeterRegistry meterRegistry) {
+        this.elasticBlogRepository = elasticBlogRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.batchTimer = Timer.builder("blog.index.batch")
+                .description("Time to apply one polled batch of blog events to elasticsearch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("blog.index.batch.size")
+                .description("Blog events per polled batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = {"${spring.kafka.topic}"}, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "blogIndexBatchListenerContainerFactory")
+    public void consumeEvents(List<ConsumerRecord<Long, ElasticBlogDocument>> records) {
+        batchSize.record(records.size());
+        batchTimer.record(() -> indexBatch(records));
+    }
+
+    private void indexBatch(List<ConsumerRecord<Long, ElasticBlogDocument>> records) {
+        NavigableMap<Integer, RuntimeException> unapplied = new TreeMap<>();
+        Map<Long, Integer> firstIndex = new HashMap<>();
+        Map<Long, ElasticBlogDocument> upserts = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<Long, ElasticBlogDocument> record = records.get(i);
+            Long blogId = BlogEventHeaders.blogId(record);
+            if (BlogEventHeaders.isDelete(record)) {
+                if (blogId == null) {
+                    unapplied.put(i, new IllegalArgumentException("Blog delete event without a blog id"));
+                    continue;
+                }
+                firstIndex.putIfAbsent(blogId, i);
+                upserts.remove(blogId);
+                deletes.add(blogId);
+                continue;
+            }
+            ElasticBlogDocument elasticBlogDocument = record.value();
+            if (elasticBlogDocument == null) {
+                // the error handling deserializer leaves the value empty when the event could not be decoded
+                unapplied.put(i, new IllegalArgumentException("Blog event at offset " + record.offset() + " could not be decoded"));
+                continue;
+            }
+            // records without a blog id header predate the header and carry the document itself
+            if (blogId == null) {
+                blogId = elasticBlogDocument.getId();
+            }
+            if (blogId == null) {
+                unapplied.put(i, new IllegalArgumentException("Blog event without a blog id"));
+                continue;
+            }
+            firstIndex.putIfAbsent(blogId, i);
+            deletes.remove(blogId);
+            upserts.put(blogId, elasticBlogDocument);
+        }
+
+        if (!upserts.isEmpty()) {
+            List<IndexQuery> indexQueries = new ArrayList<>(upserts.size());
+            upserts.forEach((blogId, elasticBlogDocument) -> indexQueries.add(new IndexQueryBuilder()
+                    .withId(String.valueOf(blogId))
+                    .withObject(elasticBlogDocument)
+                    .build()));
+            try {
+                elasticsearchOperations.bulkIndex(indexQueries, ElasticBlogDocument.class);
+            } catch (BulkFailureException e) {
+                // the other items of the bulk request were indexed
+                for (String failedId : e.getFailedDocuments().keySet()) {
+                    Integer index = firstIndex.get(Long.valueOf(failedId));
+                    if (index != null) {
+                        unapplied.putIfAbsent(index, e);
+                    }
+                }
+            } catch (RuntimeException e) {
+                for (Long blogId : upserts.keySet()) {
+                    unapplied.putIfAbsent(firstIndex.get(blogId), e);
+                }
+            }
+        }
+        if (!deletes.isEmpty()) {
+            try {
+                elasticBlogRepository.deleteAllById(deletes);
+            } catch (RuntimeException e) {
+                for (Long blogId : deletes) {
+                    unapplied.putIfAbsent(firstIndex.get(blogId), e);
+                }
+            }
+        }
 
-    /*
-    default retryable attempts is 3, I set it to 4, which means retry fail messages to consuming 4 times.
-    After 4 times, if it still fails, sends the failure messages to DLT
-     */
-    @RetryableTopic(attempts = "4",
-            backoff = @Backoff(delay = 1000, multiplier = 2),
-            exclude = {SerializationException.class, DeserializationException.class},
-            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
-            retryTopicSuffix = "elastic-blog-event-retry",
-            dltTopicSuffix = "elastic-blog-event-dlt"
-    )
-    @KafkaListener(topics = {"${spring.kafka.topic}"}, groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeEvent(ConsumerRecord<Long, Object> record) {
-        ElasticBlogDocument elasticBlogDocument = objectMapper.convertValue(record.value(), ElasticBlogDocument.class);
-
-        elasticBlogRepository.save(elasticBlogDocument);
-
-        LOGGER.info("Elastic Blog Saved event consuming object {}, with topic name {} and the offset {} ", record.value(), record.topic(), record.offset());
+        if (!unapplied.isEmpty()) {
+            Map.Entry<Integer, RuntimeException> first = unapplied.firstEntry();
+            throw new BatchListenerFailedException("Blog event at index " + first.getKey() + " could not be applied",
+                    first.getValue(), first.getKey());
+        }
+        LOGGER.info("Elastic blog batch of {} events applied, {} saved and {} deleted, last offset {}",
+                records.size(), upserts.size(), deletes.size(), records.get(records.size() - 1).offset());
     }
 
     //listens all the fail messages
-    @DltHandler
-    public void handleDLT(ConsumerRecord<Long, Object> record) {
-        LOGGER.info("DLT Received from topic: {}, user with id: {}, blog: {}, offset {}", record.topic(), record.key(), record.value(), record.offset());
+    @KafkaListener(topics = {"${spring.kafka.topic}${app.elastic-sync-dlt-suffix:elastic-blog-event-dlt}"},
+            groupId = "${spring.kafka.consumer.group-id}")
+    public void handleDLT(ConsumerRecord<Long, ElasticBlogDocument> record) {
+        LOGGER.info("DLT Received from topic: {}, blog with id: {}, blog: {}, offset {}", record.topic(), record.key(), record.value(), record.offset());
     }
 
 }
@@ -3,11 +3,13 @@ package com.scalefocus.blogservice.controller;
 
 import com.scalefocus.blogservice.dto.BlogDto;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.request.BlogBulkRequest;
 import com.scalefocus.blogservice.request.BlogCreationRequest;
 import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
+import com.scalefocus.blogservice.response.TaggedBlogResponse;
 import com.scalefocus.blogservice.response.UserBlogResponse;
 import com.scalefocus.blogservice.service.BlogService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,10 +19,13 @@ import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
 
 @Tag(
         name = "CRUD REST APIs for Blog Resource",
@@ -52,6 +57,21 @@ public class BlogController {
 
     }
 
+    @Operation(
+            summary = "Bulk Save Blogs REST API",
+            description = "Bulk Save Blogs REST API is used to create and update many blogs of the authenticated user in one request"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "HTTP Status 201 CREATED"
+    )
+    //users can migrate their content with one request instead of one per blog
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BlogDto>> bulkSaveBlogs(@RequestBody BlogBulkRequest blogBulkRequest) {
+        logger.info("Saving blogs in bulk");
+        return new ResponseEntity<>(blogService.bulkSaveBlogs(blogBulkRequest), HttpStatus.CREATED);
+    }
+
     @Operation(
             summary = "Get All Blogs REST API",
             description = "Get All Blogs REST API is used to get  all the blogs from the database"
@@ -68,6 +88,23 @@ public class BlogController {
     }
 
 
+    @Operation(
+            summary = "Export All Blogs REST API",
+            description = "Export All Blogs REST API is used to stream all the blogs as newline delimited JSON"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status 200 SUCCESS"
+    )
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportAllBlogs() {
+        logger.info("Exporting all blogs");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(blogService::exportAllBlogs);
+    }
+
+
     @Operation(
             summary = "Get User Blogs REST API",
             description = "Get User Blogs REST API is used to get the blogs for specific user"
@@ -145,17 +182,42 @@ public class BlogController {
     }
 
     /**
-     * @param pageNumber refers to which page you want to view
-     * @param pageSize   refers to the number of data that will appear on the page
+     * @param all      tag names a blog must all have
+     * @param any      tag names of which a blog must have at least one
+     * @param cursor   nextCursor of the previous page
+     * @param pageSize refers to the number of blogs that will appear on the page
+     * @return TaggedBlogResponse with the matching blogs ordered by id, the number of matches and the next cursor
+     */
+    //users can filter blogs by several tags
+    @GetMapping("/tags")
+    public ResponseEntity<TaggedBlogResponse> getBlogsByTags(@RequestParam(defaultValue = "") Set<String> all,
+                                                             @RequestParam(defaultValue = "") Set<String> any,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int pageSize) {
+        logger.info("Getting blogs with all tags {} and any tag {}", all, any);
+        return new ResponseEntity<>(blogService.getBlogsByTags(all, any, cursor, pageSize), HttpStatus.OK);
+    }
+
+    /**
+     * @param pageNumber   refers to which page you want to view, only used when no cursor is given
+     * @param pageSize     refers to the number of data that will appear on the page
+     * @param cursor       nextCursor of the previous page, pages by blog id instead of offset when given
+     * @param includeTotal whether to add an estimated total number of blogs in cursor mode
      * @return SimplifiedBlogResponsePagination object which includes the data with blog title and text,
      * total number blogs, total count of the pages, current page number and number of values
-     * in a page
+     * in a page, or the cursor of the next page in cursor mode
      */
     //users can get simplified blog list
     @GetMapping("/simplified")
-    public ResponseEntity<SimplifiedBlogResponsePagination> getSimplifiedBlogs(@RequestParam int pageNumber, @RequestParam int pageSize) {
+    public ResponseEntity<SimplifiedBlogResponsePagination> getSimplifiedBlogs(@RequestParam(required = false) Integer pageNumber,
+                                                                               @RequestParam int pageSize,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "false") boolean includeTotal) {
         logger.info("Getting simplified blogs with pagination");
-        return new ResponseEntity<>(blogService.getSimplifiedBlogs(pageNumber, pageSize), HttpStatus.OK);
+        if (pageNumber != null && cursor == null) {
+            return new ResponseEntity<>(blogService.getSimplifiedBlogs(pageNumber, pageSize), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(blogService.getSimplifiedBlogs(cursor, pageSize, includeTotal), HttpStatus.OK);
     }
 
     @Operation(
@@ -0,0 +1,25 @@
+package com.scalefocus.blogservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        description = "Cached Blog Snapshot Information"
+)
+public record BlogSnapshot(
+        @Schema(
+                description = "Blog Id"
+        )
+        Long id,
+        @Schema(
+                description = "Blog Owner User Id"
+        )
+        Long userId,
+        @Schema(
+                description = "Blog Title"
+        )
+        String title,
+        @Schema(
+                description = "Blog Text Excerpt"
+        )
+        String excerpt
+) {}
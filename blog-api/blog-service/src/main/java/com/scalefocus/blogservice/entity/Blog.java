@@ -3,6 +3,7 @@ package com.scalefocus.blogservice.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,17 +14,18 @@ import java.util.Set;
 @Entity
 @Table(name = "BLOG")
 @NoArgsConstructor
-@AllArgsConstructor
 @Getter
 @Setter
-@Builder
 public class Blog {
 
+    public static final int EXCERPT_LENGTH = 200;
+
     @Schema(
             description = "Blog Entity Id"
     )
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_seq")
+    @SequenceGenerator(name = "blog_seq", sequenceName = "blog_seq", allocationSize = 50)
     private Long id;
 
     @Schema(
@@ -32,14 +34,24 @@ public class Blog {
     private String title;
 
     @Schema(
-            description = "Blog Entity Text"
+            description = "Blog Entity Text Excerpt, read by list views instead of the full text"
+    )
+    private String excerpt;
+
+    @Schema(
+            description = "Blog Entity Full Text, loaded only when the text is read"
     )
-    private String text;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private BlogContent content;
 
     @Schema(
             description = "Blog Entity Tag Information"
     )
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(name = "blog_tags",
             joinColumns = {@JoinColumn(name = "blog_id", referencedColumnName = "id")},
             inverseJoinColumns = {@JoinColumn(name = "tag_id", referencedColumnName = "id")}
@@ -52,4 +64,25 @@ public class Blog {
 
     @Column(name = "userId")
     private Long userId;
+
+    @Builder
+    public Blog(Long id, String title, String text, Set<Tag> tags, Long userId) {
+        this.id = id;
+        this.title = title;
+        this.tags = tags;
+        this.userId = userId;
+        setText(text);
+    }
+
+    public String getText() {
+        return content == null ? null : content.getText();
+    }
+
+    public void setText(String text) {
+        if (content == null) {
+            content = new BlogContent();
+        }
+        content.setText(text);
+        excerpt = text == null || text.length() <= EXCERPT_LENGTH ? text : text.substring(0, EXCERPT_LENGTH);
+    }
 }
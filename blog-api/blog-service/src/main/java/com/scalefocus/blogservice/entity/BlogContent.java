@@ -0,0 +1,34 @@
+package com.scalefocus.blogservice.entity;
+
+import com.scalefocus.blogservice.utils.CompressedTextConverter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(
+        description = "Blog Content Entity Model Information"
+)
+@Entity
+@Table(name = "BLOG_CONTENT")
+@NoArgsConstructor
+@Getter
+@Setter
+public class BlogContent {
+
+    @Schema(
+            description = "Blog Content Entity Id"
+    )
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_content_seq")
+    @SequenceGenerator(name = "blog_content_seq", sequenceName = "blog_content_seq", allocationSize = 50)
+    private Long id;
+
+    @Schema(
+            description = "Blog Full Text, compressed in the database above a size threshold"
+    )
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "LONGBLOB")
+    private String text;
+}
@@ -0,0 +1,63 @@
+package com.scalefocus.blogservice.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Schema(
+        description = "Blog Outbox Event Model Information"
+)
+@Entity
+@Table(name = "BLOG_OUTBOX")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BlogOutboxEvent {
+
+    @Schema(
+            description = "Outbox Event Id, also the order the events are relayed in"
+    )
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_outbox_seq")
+    @SequenceGenerator(name = "blog_outbox_seq", sequenceName = "blog_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Schema(
+            description = "Id Of The Changed Blog, used as the record key"
+    )
+    @Column(nullable = false)
+    private Long blogId;
+
+    @Schema(
+            description = "Id Of The Blog Owner"
+    )
+    private Long userId;
+
+    @Schema(
+            description = "Blog Event Type, UPSERT or DELETE"
+    )
+    @Column(nullable = false, length = 16)
+    private String eventType;
+
+    @Schema(
+            description = "Elastic Blog Document As JSON, empty for deletes"
+    )
+    @Column(columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Schema(
+            description = "Failed Relay Attempts Of This Event"
+    )
+    @Column(nullable = false)
+    private int attempts;
+
+    @Schema(
+            description = "Time The Event Was Written"
+    )
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -12,7 +12,7 @@ import java.util.Set;
         description = "Tag Model Information"
 )
 @Entity
-@Table(name = "TAG")
+@Table(name = "TAG", uniqueConstraints = @UniqueConstraint(name = "uk_tag_name", columnNames = "name"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -29,6 +29,7 @@ public class Tag {
     @Schema(
             description = "Tag Name"
     )
+    @Column(nullable = false)
     private String name;
 
     @Schema(
@@ -0,0 +1,7 @@
+package com.scalefocus.blogservice.exception;
+
+public class BulkRequestTooLargeException extends RuntimeException {
+    public BulkRequestTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.scalefocus.blogservice.exception;
+
+public class EventOutboxFullException extends RuntimeException {
+    public EventOutboxFullException(String message) {
+        super(message);
+    }
+}
@@ -38,6 +38,22 @@ public class GlobalExceptionHandler {
                 webRequest.getDescription(false)), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(UserServiceUnavailableException.class)
+    public ResponseEntity<ErrorDetails> userServiceUnavailableException(UserServiceUnavailableException userServiceUnavailable, WebRequest webRequest) {
+        return new ResponseEntity<>(new ErrorDetails(getTime(),
+                "SERVICE UNAVAILABLE",
+                userServiceUnavailable.getMessage(),
+                webRequest.getDescription(false)), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(EventOutboxFullException.class)
+    public ResponseEntity<ErrorDetails> eventOutboxFullException(EventOutboxFullException eventOutboxFull, WebRequest webRequest) {
+        return new ResponseEntity<>(new ErrorDetails(getTime(),
+                "SERVICE UNAVAILABLE",
+                eventOutboxFull.getMessage(),
+                webRequest.getDescription(false)), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorDetails> generalRuntimeException(RuntimeException runtimeException, WebRequest webRequest) {
         return new ResponseEntity<>(new ErrorDetails(getTime(),
@@ -0,0 +1,7 @@
+package com.scalefocus.blogservice.exception;
+
+public class InvalidTagFilterException extends RuntimeException {
+    public InvalidTagFilterException(String message) {
+        super(message);
+    }
+}
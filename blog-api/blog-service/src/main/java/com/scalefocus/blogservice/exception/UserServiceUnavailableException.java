@@ -0,0 +1,7 @@
+package com.scalefocus.blogservice.exception;
+
+public class UserServiceUnavailableException extends RuntimeException {
+    public UserServiceUnavailableException(String message) {
+        super(message);
+    }
+}
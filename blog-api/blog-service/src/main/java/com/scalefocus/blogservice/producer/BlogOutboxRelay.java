@@ -0,0 +1,253 @@
+package com.scalefocus.blogservice.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
+import com.scalefocus.blogservice.entity.BlogOutboxEvent;
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.repository.BlogOutboxRepository;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends outbox events to Kafka in id order and deletes them once the broker acknowledged the whole
+ * batch. A failed batch rolls back, counts an attempt on its events and is sent again after an
+ * exponential backoff with jitter, so events may be delivered more than once. Only the instance holding
+ * the {@link BlogOutboxRelayLock} relays, the others skip their run.
+ */
+@Component
+public class BlogOutboxRelay {
+
+    private static final Logger LOGGER = LogManager.getLogger(BlogOutboxRelay.class);
+
+    private final BlogOutboxRepository blogOutboxRepository;
+    private final BlogOutboxRelayLock blogOutboxRelayLock;
+    private final KafkaTemplate<Long, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final long pollMilliseconds;
+    private final long sendTimeoutMilliseconds;
+    private final long retryInitialMilliseconds;
+    private final long retryMaxMilliseconds;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final Counter relayedEvents;
+    private final Counter retries;
+
+    // only touched on the relay thread
+    private int consecutiveFailures;
+    private long nextAttemptAt;
+
+    public BlogOutboxRelay(BlogOutboxRepository blogOutboxRepository,
+                           BlogOutboxRelayLock blogOutboxRelayLock,
+                           KafkaTemplate<Long, Object> kafkaTemplate,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${spring.kafka.topic}") String topic,
+                           @Value("${app.blog-outbox-batch-size:100}") int batchSize,
+                           @Value("${app.blog-outbox-poll-milliseconds:1000}") long pollMilliseconds,
+                           @Value("${app.blog-outbox-send-timeout-milliseconds:10000}") long sendTimeoutMilliseconds,
+                           @Value("${app.blog-outbox-retry-initial-milliseconds:1000}") long retryInitialMilliseconds,
+                           @Value("${app.blog-outbox-retry-max-milliseconds:60000}") long retryMaxMilliseconds) {
+        this.blogOutboxRepository = blogOutboxRepository;
+        this.blogOutboxRelayLock = blogOutboxRelayLock;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.pollMilliseconds = pollMilliseconds;
+        this.sendTimeoutMilliseconds = sendTimeoutMilliseconds;
+        this.retryInitialMilliseconds = retryInitialMilliseconds;
+        this.retryMaxMilliseconds = retryMaxMilliseconds;
+        Gauge.builder("blog.outbox.depth", depth, AtomicLong::get)
+                .description("Blog index events waiting in the outbox")
+                .register(meterRegistry);
+        this.relayedEvents = Counter.builder("blog.outbox.relayed")
+                .description("Blog index events acknowledged by the broker")
+                .register(meterRegistry);
+        this.retries = Counter.builder("blog.outbox.retries")
+                .description("Failed relay batches that were scheduled for a retry")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blog-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Polls as a safety net for events whose wake-up was missed, e.g. ones written before a crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::relayPending, 0, pollMilliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Relays right away on the relay thread, called once a transaction that wrote events has committed.
+     * Wake-ups arriving while one is already queued are folded into it, since one run drains every
+     * committed event.
+     */
+    public void wakeUp() {
+        if (!scheduler.isShutdown() && wakeUpQueued.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpQueued.set(false);
+                relayPending();
+            });
+        }
+    }
+
+    /**
+     * Relays until the outbox is drained. Wake-ups and polls while a backoff is running are skipped,
+     * so a broker outage costs one attempt per backoff period instead of a resend loop. While another
+     * instance holds the relay lock the run is skipped too; that instance or the next poll sends the events.
+     * The depth is read on every call, backoff or not, so producers see the outbox grow during an outage.
+     */
+    public void relayPending() {
+        if (System.currentTimeMillis() >= nextAttemptAt) {
+            relayAsLeader();
+        }
+        refreshDepth();
+    }
+
+    private void relayAsLeader() {
+        try {
+            if (blogOutboxRelayLock.runExclusively(this::drain)) {
+                consecutiveFailures = 0;
+            }
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            long backoff = backoffMilliseconds(consecutiveFailures);
+            nextAttemptAt = System.currentTimeMillis() + backoff;
+            retries.increment();
+            LOGGER.error("Relaying blog outbox events failed {} times in a row, retrying in {} ms: {}",
+                    consecutiveFailures, backoff, e.getMessage());
+        }
+    }
+
+    private void drain() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Doubles with every failure up to the maximum, then picks a random point in the upper half,
+     * so instances that failed together do not retry together.
+     */
+    long backoffMilliseconds(int failures) {
+        long ceiling = Math.min(retryMaxMilliseconds, retryInitialMilliseconds << Math.min(failures - 1, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    int relayBatch() {
+        List<Long> lockedIds = new ArrayList<>();
+        try {
+            return sendBatch(lockedIds);
+        } catch (RuntimeException e) {
+            if (!lockedIds.isEmpty()) {
+                blogOutboxRepository.incrementAttempts(lockedIds);
+            }
+            throw e;
+        }
+    }
+
+    private int sendBatch(List<Long> lockedIds) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<BlogOutboxEvent> events = blogOutboxRepository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            events.forEach(event -> lockedIds.add(event.getId()));
+            CompletableFuture<?>[] sent = events.stream()
+                    .map(event -> kafkaTemplate.send(toRecord(event)))
+                    .toArray(CompletableFuture[]::new);
+            kafkaTemplate.flush();
+            awaitAcknowledgements(CompletableFuture.allOf(sent));
+
+            blogOutboxRepository.deleteAllByIdInBatch(events.stream().map(BlogOutboxEvent::getId).toList());
+            relayedEvents.increment(events.size());
+            LOGGER.info("Relayed {} blog outbox events", events.size());
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    /**
+     * Number of events waiting in the outbox, on all instances, as of the last poll or wake-up.
+     */
+    public long getDepth() {
+        return depth.get();
+    }
+
+    private void refreshDepth() {
+        try {
+            depth.set(ReadWriteRoutingDataSource.readFromPrimary(blogOutboxRepository::count));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not read the blog outbox depth: {}", e.getMessage());
+        }
+    }
+
+    private void awaitAcknowledgements(CompletableFuture<Void> sent) {
+        try {
+            sent.get(sendTimeoutMilliseconds, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for blog event acknowledgements", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Blog events were not acknowledged by the broker", e);
+        }
+    }
+
+    private ProducerRecord<Long, Object> toRecord(BlogOutboxEvent event) {
+        Object value = null;
+        if (event.getPayload() != null) {
+            try {
+                value = objectMapper.readValue(event.getPayload(), ElasticBlogDocument.class);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        // keyed by blog, so one author's events spread over all partitions while each blog keeps its order
+        ProducerRecord<Long, Object> record = new ProducerRecord<>(topic, event.getBlogId(), value);
+        BlogEventHeaders.add(record.headers(), event.getBlogId(), event.getEventType());
+        return record;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,59 @@
+package com.scalefocus.blogservice.producer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * MySQL named lock that makes one instance at a time the outbox relay, so events leave the outbox in
+ * id order across all instances. The lock belongs to the database session, so it is taken on a connection
+ * of its own that stays open for the whole run, and the server drops it if the instance dies.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogOutboxRelayLock {
+
+    static final String LOCK_NAME = "blog_outbox_relay";
+
+    private final DataSource dataSource;
+
+    /**
+     * Runs the action while holding the lock. Returns false, without running it, when another instance holds it.
+     */
+    public boolean runExclusively(Runnable action) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!acquire(connection)) {
+                return false;
+            }
+            try {
+                action.run();
+            } finally {
+                release(connection);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Blog outbox relay lock could not be used", e);
+        }
+    }
+
+    private boolean acquire(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void release(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -1,71 +1,103 @@
 package com.scalefocus.blogservice.producer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.entity.BlogOutboxEvent;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.exception.EventOutboxFullException;
+import com.scalefocus.blogservice.repository.BlogOutboxRepository;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
 import lombok.RequiredArgsConstructor;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Objects;
-import java.util.Queue;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
 
+/**
+ * Writes blog index events to the outbox in the caller's transaction. {@link BlogOutboxRelay}
+ * sends them to Kafka after the commit, so the request thread never waits on the broker.
+ */
 @Component
 @RequiredArgsConstructor
 public class KafkaElasticBlogProducer {
 
-    @Value("${spring.kafka.topic}")
-    private String topic;
-
     private static final Logger LOGGER = LogManager.getLogger(KafkaElasticBlogProducer.class);
 
-    private final KafkaTemplate<Long, Object> kafkaTemplate;
-    private final Queue<ProducerRecord<Long, Object>> eventQueue = new ConcurrentLinkedQueue<>();
+    private final BlogOutboxRepository blogOutboxRepository;
+    private final BlogOutboxRelay blogOutboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.blog-outbox-max-depth:100000}")
+    private long maxDepth;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void createEvent(ElasticBlogDocument elasticBlogDocument) {
-        LOGGER.info("Creating elastic blog document event {}", elasticBlogDocument);
-        ProducerRecord<Long, Object> record = buildRecord(elasticBlogDocument.getUserId(), elasticBlogDocument);
-        sendEvent(record);
+        LOGGER.info("Creating elastic blog document event for blog with id {}", elasticBlogDocument.getId());
+        checkCapacity(1);
+        blogOutboxRepository.save(upsertEvent(elasticBlogDocument));
+        wakeRelayAfterCommit();
     }
 
-    private ProducerRecord<Long, Object> buildRecord(Long key, Object value) {
-        return new ProducerRecord<>(topic, key, value);
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createEvents(List<ElasticBlogDocument> elasticBlogDocuments) {
+        LOGGER.info("Creating {} elastic blog document events", elasticBlogDocuments.size());
+        checkCapacity(elasticBlogDocuments.size());
+        blogOutboxRepository.saveAll(elasticBlogDocuments.stream().map(this::upsertEvent).toList());
+        wakeRelayAfterCommit();
     }
 
-    public void sendEvent(ProducerRecord<Long, Object> record) {
-
-        CompletableFuture<SendResult<Long, Object>> sentResult = kafkaTemplate.send(record);
-        sentResult.whenComplete((result, exception) -> {
-            if (Objects.isNull(exception)) {
-                LOGGER.info("Sent elastic.blog.saved.event value= {} , with offset= {} and partition number= {}",
-                        result.getProducerRecord().value(),
-                        result.getRecordMetadata().offset(),
-                        result.getRecordMetadata().partition());
-            } else {
-                LOGGER.error("Error occurred while sending elastic.blog.event:  {}", exception.getMessage());
-
-                eventQueue.offer(record);
-                retryFailedMessage();
-            }
-        });
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteEvent(Long blogId, Long userId) {
+        LOGGER.info("Creating elastic blog delete event for blog with id {}", blogId);
+        checkCapacity(1);
+        blogOutboxRepository.save(BlogOutboxEvent.builder()
+                .blogId(blogId)
+                .userId(userId)
+                .eventType(BlogEventHeaders.DELETE)
+                .createdAt(Instant.now())
+                .build());
+        wakeRelayAfterCommit();
+    }
 
+    /**
+     * Rejects the change, and so rolls back the caller's transaction, once the relay has fallen so far
+     * behind that the outbox would grow past its limit.
+     */
+    private void checkCapacity(int events) {
+        if (blogOutboxRelay.getDepth() + events > maxDepth) {
+            LOGGER.error("Blog outbox holds {} events, rejecting {} more", blogOutboxRelay.getDepth(), events);
+            throw new EventOutboxFullException("Blog changes are paused until the search index catches up");
+        }
     }
 
-    private void retryFailedMessage() {
-        if (!eventQueue.isEmpty()) {
-            LOGGER.info("Retry failed messages");
-            while (!eventQueue.isEmpty()) {
-                ProducerRecord<Long, Object> record = eventQueue.poll();
-                if (Objects.nonNull(record)) {
-                    sendEvent(record);
-                }
-            }
+    private BlogOutboxEvent upsertEvent(ElasticBlogDocument elasticBlogDocument) {
+        try {
+            return BlogOutboxEvent.builder()
+                    .blogId(elasticBlogDocument.getId())
+                    .userId(elasticBlogDocument.getUserId())
+                    .eventType(BlogEventHeaders.UPSERT)
+                    .payload(objectMapper.writeValueAsString(elasticBlogDocument))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                blogOutboxRelay.wakeUp();
+            }
+        });
+    }
 }
@@ -0,0 +1,26 @@
+package com.scalefocus.blogservice.repository;
+
+import com.scalefocus.blogservice.entity.BlogOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BlogOutboxRepository extends JpaRepository<BlogOutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events. Only the holder of the relay lock reads them; the row locks make any
+     * other reader wait for the batch to commit instead of sending events out of order.
+     */
+    @Query(value = "SELECT * FROM blog_outbox ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<BlogOutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BlogOutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    void incrementAttempts(@Param("ids") Collection<Long> ids);
+}
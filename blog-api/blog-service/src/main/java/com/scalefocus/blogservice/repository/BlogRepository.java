@@ -1,13 +1,95 @@
 package com.scalefocus.blogservice.repository;
 
+import com.scalefocus.blogservice.dto.BlogSnapshot;
 import com.scalefocus.blogservice.entity.Blog;
+import com.scalefocus.blogservice.response.BlogResponse;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface BlogRepository extends JpaRepository<Blog, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"tags", "content"})
+    List<Blog> findAll();
+
+    @EntityGraph(attributePaths = {"tags", "content"})
+    Optional<Blog> findWithTagsById(Long id);
+
+    @Query("SELECT new com.scalefocus.blogservice.dto.BlogSnapshot(b.id, b.userId, b.title, b.excerpt) FROM Blog b WHERE b.id = :id")
+    Optional<BlogSnapshot> findSnapshotById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"tags", "content"})
     List<Blog> findByTagsName(String name);
 
-    List<Blog> getBlogsByUserId(Long userId);
+    @EntityGraph(attributePaths = {"tags", "content"})
+    List<Blog> findByIdInOrderById(Collection<Long> ids);
+
+    @Query("SELECT b.id AS blogId, t.name AS tagName FROM Blog b JOIN b.tags t")
+    List<BlogTagView> findAllBlogTags();
+
+    /**
+     * Streams every blog in id order. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Blog b LEFT JOIN FETCH b.content ORDER BY b.id")
+    Stream<Blog> streamAll();
+
+    @Query("SELECT new com.scalefocus.blogservice.response.BlogResponse(b.title, b.excerpt) FROM Blog b WHERE b.userId = :userId")
+    List<BlogResponse> findBlogResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT b.id AS id, b.title AS title, b.excerpt AS text FROM Blog b",
+            countQuery = "SELECT COUNT(b) FROM Blog b")
+    Page<SimplifiedBlogView> findSimplifiedBlogs(Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.title AS title, b.excerpt AS text FROM Blog b WHERE b.id > :afterId ORDER BY b.id")
+    List<SimplifiedBlogView> findSimplifiedBlogsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Raises blog_seq above the highest blog id, leaving room for one pooled block of 50 ids.
+     * Never lowers it.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE blog_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 50 FROM blog) " +
+            "WHERE next_val < (SELECT COALESCE(MAX(id), 0) + 50 FROM blog)",
+            nativeQuery = true)
+    int alignIdSequence();
+
+    @Query(value = "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'blog' AND COLUMN_NAME = 'text'",
+            nativeQuery = true)
+    long countLegacyTextColumns();
+
+    /**
+     * Only valid while the legacy blog.text column exists.
+     */
+    @Query(value = "SELECT COUNT(*) FROM blog WHERE content_id IS NULL AND text IS NOT NULL", nativeQuery = true)
+    long countBlogsWithoutContent();
+
+    /**
+     * Row count estimate kept by InnoDB statistics, read without scanning the table.
+     */
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'blog'",
+            nativeQuery = true)
+    Long estimateBlogCount();
 }
@@ -0,0 +1,11 @@
+package com.scalefocus.blogservice.repository;
+
+/**
+ * One row of the blog_tags join table with the tag name resolved.
+ */
+public interface BlogTagView {
+
+    Long getBlogId();
+
+    String getTagName();
+}
@@ -0,0 +1,13 @@
+package com.scalefocus.blogservice.repository;
+
+/**
+ * Columns needed for a simplified blog listing, read without loading tags.
+ */
+public interface SimplifiedBlogView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getText();
+}
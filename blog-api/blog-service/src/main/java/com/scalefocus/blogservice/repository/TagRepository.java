@@ -2,6 +2,39 @@ package com.scalefocus.blogservice.repository;
 
 import com.scalefocus.blogservice.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    /**
+     * Oldest tag with the name. Until duplicates are merged and uk_tag_name exists a name can have several rows.
+     */
+    Optional<TagView> findFirstByNameOrderByIdAsc(String name);
+
+    @Query("SELECT t.id AS id, t.name AS name FROM Tag t")
+    List<TagView> findAllTagViews();
+
+    /**
+     * Inserts the tag unless a tag with the same name exists, without failing on concurrent inserts.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tag (name) VALUES (:name)", nativeQuery = true)
+    void insertIfAbsent(@Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO blog_tags (blog_id, tag_id) VALUES (:blogId, :tagId)", nativeQuery = true)
+    void attachToBlog(@Param("blogId") Long blogId, @Param("tagId") Long tagId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM blog_tags WHERE blog_id = :blogId AND tag_id = :tagId", nativeQuery = true)
+    void detachFromBlog(@Param("blogId") Long blogId, @Param("tagId") Long tagId);
 }
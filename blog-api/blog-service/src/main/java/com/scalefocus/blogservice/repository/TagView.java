@@ -0,0 +1,8 @@
+package com.scalefocus.blogservice.repository;
+
+public interface TagView {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,22 @@
+package com.scalefocus.blogservice.request;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(
+        description = "Blog Bulk Save Request Information"
+)
+public record BlogBulkRequest(
+        @Schema(
+                description = "Blogs to create"
+        )
+        List<BlogCreationRequest> created,
+
+        @Schema(
+                description = "Title and text updates keyed by blog id"
+        )
+        Map<Long, BlogUpdateRequest> updated) {
+}
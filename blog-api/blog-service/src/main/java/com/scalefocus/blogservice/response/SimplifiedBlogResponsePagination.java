@@ -18,5 +18,7 @@ public class SimplifiedBlogResponsePagination {
     private long totalPages;
     private long currentPage;
     private long viewedValueCount;
+    private String nextCursor;
+    private boolean totalEstimated;
 
 }
@@ -0,0 +1,35 @@
+package com.scalefocus.blogservice.response;
+
+import com.scalefocus.blogservice.dto.BlogDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        description = "Blogs Filtered By Tags Response Information"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaggedBlogResponse {
+
+    @Schema(
+            description = "Blogs of the current page, ordered by id"
+    )
+    private List<BlogDto> blogs;
+
+    @Schema(
+            description = "Number of blogs matching the tag filter"
+    )
+    private long matchedCount;
+
+    @Schema(
+            description = "Cursor of the next page, null on the last page"
+    )
+    private String nextCursor;
+}
@@ -0,0 +1,59 @@
+package com.scalefocus.blogservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Verifies the bearer tokens issued by user-service with the same secret key,
+ * so the authenticated user can be resolved without a remote call.
+ */
+@Component
+@ConfigurationProperties(prefix = "app")
+@Getter
+@Setter
+public class JwtTokenVerifier {
+
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String TOKEN_EPOCH_CLAIM = "epoch";
+
+    private static final Logger logger = LogManager.getLogger(JwtTokenVerifier.class);
+
+    private String jwtSecretKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretKey)))
+                .build();
+    }
+
+    /**
+     * Parses the token once, checking its signature and expiration.
+     *
+     * @param token the raw JWT without the "Bearer " prefix
+     * @return the signed claims, or empty if the token is not valid
+     */
+    public Optional<Claims> verify(String token) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Invalid JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
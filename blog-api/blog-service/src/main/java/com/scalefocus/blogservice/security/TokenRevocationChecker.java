@@ -0,0 +1,70 @@
+package com.scalefocus.blogservice.security;
+
+import com.scalefocus.blogservice.utils.SingleFlight;
+import com.scalefocus.blogservice.utils.UserServiceCallGuard;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks a locally verified token against the user's current token epoch in user-service.
+ * The epoch is remembered per user for a short time, so only the first request
+ * of a user in every TTL window pays the remote round trip.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationChecker {
+
+    private static final Logger logger = LogManager.getLogger(TokenRevocationChecker.class);
+
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    @Value("${app.jwt-revocation-check-ttl-milliseconds:30000}")
+    private long revocationCheckTtlMilliseconds;
+
+    private final RestTemplate restTemplate;
+    private final UserServiceCallGuard userServiceCallGuard;
+    private final Map<Long, CachedTokenEpoch> tokenEpochs = new ConcurrentHashMap<>();
+    private final SingleFlight<Long, Integer> tokenEpochLookups = new SingleFlight<>();
+
+    public boolean isActive(Long userId, int tokenEpoch) {
+        return tokenEpoch >= getTokenEpoch(userId);
+    }
+
+    private int getTokenEpoch(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedTokenEpoch cached = tokenEpochs.get(userId);
+        if (cached != null && cached.fetchedAt() + revocationCheckTtlMilliseconds > now) {
+            return cached.tokenEpoch();
+        }
+
+        return tokenEpochLookups.execute(userId, () -> fetchTokenEpoch(userId));
+    }
+
+    private int fetchTokenEpoch(Long userId) {
+        logger.info("Getting token epoch of user with id '{}' from user-service", userId);
+        Integer tokenEpoch = userServiceCallGuard.call(() ->
+                restTemplate.getForObject("http://user-service/api/users/{userId}/tokenEpoch", Integer.class, userId));
+        int currentEpoch = Objects.requireNonNullElse(tokenEpoch, 0);
+        long now = System.currentTimeMillis();
+
+        if (tokenEpochs.size() >= MAX_CACHED_USERS) {
+            tokenEpochs.values().removeIf(epoch -> epoch.fetchedAt() + revocationCheckTtlMilliseconds <= now);
+            if (tokenEpochs.size() >= MAX_CACHED_USERS) {
+                tokenEpochs.clear();
+            }
+        }
+        tokenEpochs.put(userId, new CachedTokenEpoch(currentEpoch, now));
+        return currentEpoch;
+    }
+
+    private record CachedTokenEpoch(int tokenEpoch, long fetchedAt) {
+    }
+}
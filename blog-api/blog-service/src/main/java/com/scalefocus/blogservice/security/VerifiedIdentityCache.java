@@ -0,0 +1,46 @@
+package com.scalefocus.blogservice.security;
+
+import com.scalefocus.blogservice.dto.UserClientDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the identity last verified for a token, so requests can still be served
+ * with it for a while when user-service cannot be reached.
+ */
+@Component
+public class VerifiedIdentityCache {
+
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    @Value("${app.user-identity-fallback-ttl-milliseconds:300000}")
+    private long fallbackTtlMilliseconds;
+
+    private final Map<String, VerifiedIdentity> identities = new ConcurrentHashMap<>();
+
+    public void put(String token, UserClientDto user) {
+        long now = System.currentTimeMillis();
+        if (identities.size() >= MAX_CACHED_TOKENS) {
+            identities.values().removeIf(identity -> identity.verifiedAt() + fallbackTtlMilliseconds <= now);
+            if (identities.size() >= MAX_CACHED_TOKENS) {
+                identities.clear();
+            }
+        }
+        identities.put(TokenHasher.hash(token), new VerifiedIdentity(user, now));
+    }
+
+    public Optional<UserClientDto> get(String token) {
+        VerifiedIdentity identity = identities.get(TokenHasher.hash(token));
+        if (identity == null || identity.verifiedAt() + fallbackTtlMilliseconds <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(identity.user());
+    }
+
+    private record VerifiedIdentity(UserClientDto user, long verifiedAt) {
+    }
+}
@@ -3,21 +3,29 @@ package com.scalefocus.blogservice.service;
 
 import com.scalefocus.blogservice.dto.BlogDto;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.request.BlogBulkRequest;
 import com.scalefocus.blogservice.request.BlogCreationRequest;
 import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
+import com.scalefocus.blogservice.response.TaggedBlogResponse;
 import com.scalefocus.blogservice.response.UserBlogResponse;
 
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 
 public interface BlogService {
 
     BlogDto createBlog(BlogCreationRequest blogCreationRequest);
 
+    List<BlogDto> bulkSaveBlogs(BlogBulkRequest blogBulkRequest);
+
     List<BlogDto> getAllBlogs();
 
+    void exportAllBlogs(OutputStream outputStream);
+
     UserBlogResponse getUserBlogs(Long userId);
 
     BlogDto updateBlog(Long blogId, BlogUpdateRequest blogUpdateRequest);
@@ -28,8 +36,12 @@ public interface BlogService {
 
     List<BlogDto> getBlogsByTagName(String tagName);
 
+    TaggedBlogResponse getBlogsByTags(Collection<String> all, Collection<String> any, String cursor, int pageSize);
+
     SimplifiedBlogResponsePagination getSimplifiedBlogs(int pageNumber, int pageSize);
 
+    SimplifiedBlogResponsePagination getSimplifiedBlogs(String cursor, int pageSize, boolean includeTotal);
+
     void deleteUserBlog(Long blogId, Long userId);
 
     List<ElasticBlogDocument> searchByKeyword(String keyword);
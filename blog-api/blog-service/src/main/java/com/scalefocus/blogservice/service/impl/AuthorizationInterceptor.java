@@ -2,6 +2,7 @@ package com.scalefocus.blogservice.service.impl;
 
 import com.scalefocus.blogservice.exception.ResourceNotFound;
 import com.scalefocus.blogservice.exception.UserNotAuthenticatedException;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
@@ -15,23 +16,29 @@ public class AuthorizationInterceptor implements ClientHttpRequestInterceptor {
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-        ClientHttpResponse response;
         ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
         if (requestAttributes != null) {
             String authorization = requestAttributes.getRequest().getHeader("Authorization");
-            request.getHeaders().add("Authorization", authorization);
-            response = execution.execute(request, body);
-
-            if (!(response.getStatusCode().is2xxSuccessful())) {
-                if (request.getURI().getPath().equals("/api/users/getUserDetails")) {
-                    throw new UserNotAuthenticatedException("User not authenticated");
-                }
-                throw new ResourceNotFound("User not found");
+            if (authorization != null) {
+                request.getHeaders().add("Authorization", authorization);
+            }
+        }
+        ClientHttpResponse response = execution.execute(request, body);
 
+        // error bodies are never read, so each failure releases its pooled connection before throwing
+        if (response.getStatusCode().is5xxServerError()) {
+            response.close();
+            throw new UserServiceUnavailableException("User service responded with " + response.getStatusCode());
+        }
+        if (!(response.getStatusCode().is2xxSuccessful())) {
+            response.close();
+            if (request.getURI().getPath().equals("/api/users/getUserDetails")) {
+                throw new UserNotAuthenticatedException("User not authenticated");
             }
-            return response;
+            throw new ResourceNotFound("User not found");
+
         }
-        return null;
+        return response;
     }
 }
\ No newline at end of file
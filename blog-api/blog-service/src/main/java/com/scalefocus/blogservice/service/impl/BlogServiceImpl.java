@@ -2,41 +2,75 @@ package com.scalefocus.blogservice.service.impl;
 
 
 import com.scalefocus.blogservice.dto.BlogDto;
+import com.scalefocus.blogservice.dto.BlogSnapshot;
+import com.scalefocus.blogservice.dto.TagDto;
 import com.scalefocus.blogservice.dto.UserClientDto;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
 import com.scalefocus.blogservice.entity.ElasticTag;
 import com.scalefocus.blogservice.entity.Tag;
+import com.scalefocus.blogservice.exception.BulkRequestTooLargeException;
+import com.scalefocus.blogservice.exception.InvalidTagFilterException;
 import com.scalefocus.blogservice.exception.ResourceNotFound;
 import com.scalefocus.blogservice.mapper.BlogMapper;
 import com.scalefocus.blogservice.producer.KafkaElasticBlogProducer;
 import com.scalefocus.blogservice.repository.BlogRepository;
 import com.scalefocus.blogservice.repository.ElasticBlogRepository;
+import com.scalefocus.blogservice.repository.SimplifiedBlogView;
 import com.scalefocus.blogservice.repository.TagRepository;
+import com.scalefocus.blogservice.request.BlogBulkRequest;
 import com.scalefocus.blogservice.request.BlogCreationRequest;
 import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
 import com.scalefocus.blogservice.response.BlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
+import com.scalefocus.blogservice.response.TaggedBlogResponse;
 import com.scalefocus.blogservice.response.UserBlogResponse;
 import com.scalefocus.blogservice.service.BlogService;
+import com.scalefocus.blogservice.utils.BlogCache;
+import com.scalefocus.blogservice.utils.BlogCursor;
+import com.scalefocus.blogservice.utils.TagDictionary;
+import com.scalefocus.blogservice.utils.TagIndex;
 import com.scalefocus.blogservice.utils.UserClientUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BlogServiceImpl implements BlogService {
 
     private static final Logger logger = LogManager.getLogger(BlogServiceImpl.class);
+    private static final int EXPORT_BATCH_SIZE = 100;
 
     private final BlogRepository blogRepository;
     private final BlogMapper blogMapper;
@@ -44,92 +78,165 @@ public class BlogServiceImpl implements BlogService {
     private final UserClientUtil userClientUtil;
     private final ElasticBlogRepository elasticBlogRepository;
     private final KafkaElasticBlogProducer kafkaElasticBlogProducer;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BlogCache blogCache;
+    private final TagIndex tagIndex;
+    private final TagDictionary tagDictionary;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.blog-bulk-max-size:500}")
+    private int bulkMaxSize;
 
     @Override
+    @Transactional
     public BlogDto createBlog(BlogCreationRequest blogCreationRequest) {
         UserClientDto user = userClientUtil.getAuthenticatedUser();
 
         logger.info("User with id '{}' has founded", blogCreationRequest.getUserId());
         Blog blog = blogMapper.getBlog(blogCreationRequest, user);
+        blog.setTags(canonicalTags(blog.getTags()));
         Blog savedBlog = blogRepository.save(blog);
 
-        ElasticBlogDocument elasticBlogDocument = new ElasticBlogDocument();
-        elasticBlogDocument.setId(savedBlog.getId());
-        elasticBlogDocument.setTitle(savedBlog.getTitle());
-        elasticBlogDocument.setText(savedBlog.getText());
-        elasticBlogDocument.setUserId(user.getId());
-        elasticBlogDocument.setTags(savedBlog.getTags().stream()
-                .map(tag -> new ElasticTag(tag.getId(), tag.getName())).toList());
-
-        kafkaElasticBlogProducer.createEvent(elasticBlogDocument);
+        List<String> tagNames = tagNames(savedBlog);
+        afterCommit(() -> tagIndex.replace(savedBlog.getId(), tagNames));
+        kafkaElasticBlogProducer.createEvent(toElasticBlogDocument(savedBlog));
 
         logger.info("Blog has created successfully by the user id '{}'", user.getId());
         return blogMapper.mapToBlogDto(savedBlog);
     }
 
+    /**
+     * Creates and updates all blogs in one transaction. Ids come from the pooled blog_seq allocator,
+     * so Hibernate sends the inserts as JDBC batches, and the index events are written to the outbox in the same batches.
+     * Tags are resolved before the transaction opens, so a request never holds two pool connections.
+     */
+    @Override
+    public List<BlogDto> bulkSaveBlogs(BlogBulkRequest blogBulkRequest) {
+        List<BlogCreationRequest> created = Objects.requireNonNullElse(blogBulkRequest.created(), List.of());
+        Map<Long, BlogUpdateRequest> updated = Objects.requireNonNullElse(blogBulkRequest.updated(), Map.of());
+        if (created.size() + updated.size() > bulkMaxSize) {
+            throw new BulkRequestTooLargeException("At most " + bulkMaxSize + " blogs can be saved in one request");
+        }
+        UserClientDto user = userClientUtil.getAuthenticatedUser();
+
+        List<Blog> blogs = new ArrayList<>(created.size() + updated.size());
+        for (BlogCreationRequest blogCreationRequest : created) {
+            Blog blog = blogMapper.getBlog(blogCreationRequest, user);
+            blog.setTags(canonicalTags(blog.getTags()));
+            blogs.add(blog);
+        }
+
+        List<Blog> savedBlogs = transactionTemplate.execute(status -> {
+            if (!updated.isEmpty()) {
+                Map<Long, Blog> existingBlogs = blogRepository.findByIdInOrderById(updated.keySet()).stream()
+                        .collect(Collectors.toMap(Blog::getId, Function.identity()));
+                for (Long blogId : updated.keySet()) {
+                    Blog blog = existingBlogs.get(blogId);
+                    if (blog == null) {
+                        throw new ResourceNotFound("Blog does not exist with id: " + blogId);
+                    }
+                    if (!blog.getUserId().equals(user.getId())) {
+                        throw new ResourceNotFound("Blog with id: " + blogId + " does not belong to user with id: " + user.getId());
+                    }
+                    blog.setTitle(updated.get(blogId).title());
+                    blog.setText(updated.get(blogId).text());
+                    blogs.add(blog);
+                }
+            }
+
+            List<Blog> saved = blogRepository.saveAll(blogs);
+            blogRepository.flush();
+            for (Blog savedBlog : saved) {
+                evictBlog(savedBlog.getId());
+                List<String> tagNames = tagNames(savedBlog);
+                afterCommit(() -> tagIndex.replace(savedBlog.getId(), tagNames));
+            }
+            kafkaElasticBlogProducer.createEvents(saved.stream().map(this::toElasticBlogDocument).toList());
+            return saved;
+        });
+
+        logger.info("User with id '{}' created {} and updated {} blogs in bulk", user.getId(), created.size(), updated.size());
+        return blogMapper.mapToBlogDtoList(savedBlogs);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<BlogDto> getAllBlogs() {
         logger.info("Getting all blogs from the database");
         return blogMapper.mapToBlogDtoList(blogRepository.findAll());
     }
 
+    /**
+     * Writes every blog as one JSON line. The persistence context is cleared after each batch,
+     * so memory use does not grow with the number of blogs.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllBlogs(OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        int exported = 0;
+        try (Stream<Blog> blogs = blogRepository.streamAll()) {
+            Iterator<Blog> iterator = blogs.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(outputStream, blogMapper.mapToBlogDto(iterator.next()));
+                outputStream.write('\n');
+                if (++exported % EXPORT_BATCH_SIZE == 0) {
+                    outputStream.flush();
+                    entityManager.clear();
+                }
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Exported {} blogs", exported);
+    }
+
     @Override
+    @Transactional
     public BlogDto updateBlog(Long blogId, BlogUpdateRequest blogUpdateRequest) {
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> {
-                    logger.error("Blog does not exist with id '{}'", blogId);
-                    return new ResourceNotFound("Blog does not exist with id: " + blogId);
-                });
         UserClientDto user = userClientUtil.getAuthenticatedUser();
-        if (blog.getUserId() != user.getId()) {
-            logger.error("User with id '{}' has not any blog with id {}", blog.getUserId(), blogId);
-            throw new ResourceNotFound("Blog with id: " + blogId + " does not belong to user with id: " + user.getId());
-        }
+        checkBlogOwner(blogId, user);
+        Blog blog = blogRepository.findWithTagsById(blogId)
+                .orElseThrow(() -> new ResourceNotFound("Blog does not exist with id: " + blogId));
 
         logger.info("Blog has found with id '{}'", blogId);
         blog.setTitle(blogUpdateRequest.title());
         blog.setText(blogUpdateRequest.text());
 
         blogRepository.save(blog);
+        publishBlogChanged(blog);
         logger.info("Blog with id '{}' has updated successfully", blogId);
         return blogMapper.mapToBlogDto(blog);
     }
 
     @Override
+    @Transactional
     public BlogDto addTag(Long blogId, TagAddRequest tagAddRequest) {
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> {
-                    logger.error("Blog does not found with id '{}'", blogId);
-                    return new ResourceNotFound("Blog does not exist with id: " + blogId);
-                });
-
         UserClientDto user = userClientUtil.getAuthenticatedUser();
-        if (blog.getUserId() != user.getId()) {
-            logger.error("User with id '{}' has not any blog with id {}", blog.getUserId(), blogId);
-            throw new ResourceNotFound("Blog with id: " + blogId + " does not belong to user with id: " + user.getId());
-        }
+        checkBlogOwner(blogId, user);
+        Blog blog = blogRepository.findWithTagsById(blogId)
+                .orElseThrow(() -> new ResourceNotFound("Blog does not exist with id: " + blogId));
 
         logger.info("Blog has found with id '{}'", blogId);
-        Tag tag = Tag.builder().name(tagAddRequest.tagName()).build();
-        blog.getTags().add(tag);
-        blogRepository.save(blog);
+        TagDto tagDto = tagDictionary.getOrCreate(tagAddRequest.tagName());
+        if (blog.getTags().stream().noneMatch(t -> t.getId().equals(tagDto.id()))) {
+            tagRepository.attachToBlog(blogId, tagDto.id());
+            blog.getTags().add(Tag.builder().id(tagDto.id()).name(tagDto.name()).build());
+        }
+        publishBlogChanged(blog);
         logger.info("New tag has added successfully to the blog with id '{}'", blogId);
         return blogMapper.mapToBlogDto(blog);
     }
 
     @Override
+    @Transactional
     public BlogDto removeTag(Long blogId, Long tagId) {
-        Blog blog = blogRepository.findById(blogId)
-                .orElseThrow(() -> {
-                    logger.error("Blog does not exist with id '{}'", blogId);
-                    return new ResourceNotFound("Blog does not exist with id: " + blogId);
-                });
-
         UserClientDto user = userClientUtil.getAuthenticatedUser();
-        if (blog.getUserId() != user.getId()) {
-            logger.error("User with id '{}' has not any blog with id {}", blog.getUserId(), blogId);
-            throw new ResourceNotFound("Blog with id: " + blogId + " does not belong to user with id: " + user.getId());
-        }
+        checkBlogOwner(blogId, user);
+        Blog blog = blogRepository.findWithTagsById(blogId)
+                .orElseThrow(() -> new ResourceNotFound("Blog does not exist with id: " + blogId));
 
         logger.info("Blog with id '{}' has found", blogId);
         Tag tag = blog.getTags().stream()
@@ -142,23 +249,49 @@ public class BlogServiceImpl implements BlogService {
         logger.info("Tag with id '{}' has found", tagId);
 
         blog.getTags().remove(tag);
-        blogRepository.save(blog);
-        tagRepository.deleteById(tagId);
+        tagRepository.detachFromBlog(blogId, tagId);
+        publishBlogChanged(blog);
 
         logger.info("Tag with id '{}' has removed successfully from the blog with id '{}'", tagId, blogId);
         return blogMapper.mapToBlogDto(blog);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogDto> getBlogsByTagName(String tagName) {
-        List<Blog> blogs = blogRepository.findByTagsName(tagName);
+        List<Blog> blogs = blogRepository.findByTagsName(TagDictionary.normalize(tagName));
         logger.info("Getting all blogs with specified tag name '{}'", tagName);
         return blogMapper.mapToBlogDtoList(blogs);
     }
 
+    /**
+     * Not read-only: the tag index already holds every committed write, so the blogs it returns are
+     * loaded from the primary, where a replica could still be missing them.
+     */
+    @Override
+    @Transactional
+    public TaggedBlogResponse getBlogsByTags(Collection<String> all, Collection<String> any, String cursor, int pageSize) {
+        Set<String> allTags = normalize(all);
+        Set<String> anyTags = normalize(any);
+        if (allTags.isEmpty() && anyTags.isEmpty()) {
+            throw new InvalidTagFilterException("At least one tag must be given in 'all' or 'any'");
+        }
+        Long afterId = BlogCursor.decode(cursor);
+        TagIndex.TagIndexPage page = tagIndex.find(allTags, anyTags, afterId, pageSize);
+        logger.info("Found {} blogs with all tags {} and any tag {}", page.matchedCount(), all, any);
+
+        List<Blog> blogs = page.blogIds().isEmpty() ? List.of() : blogRepository.findByIdInOrderById(page.blogIds());
+        return TaggedBlogResponse.builder()
+                .blogs(blogMapper.mapToBlogDtoList(blogs))
+                .matchedCount(page.matchedCount())
+                .nextCursor(page.hasNext() ? BlogCursor.encode(page.blogIds().get(page.blogIds().size() - 1)) : null)
+                .build();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public SimplifiedBlogResponsePagination getSimplifiedBlogs(int pageNumber, int pageSize) {
-        Page<Blog> blogRepositoryPagination = blogRepository.findAll(PageRequest.of(pageNumber, pageSize));
+        Page<SimplifiedBlogView> blogRepositoryPagination = blogRepository.findSimplifiedBlogs(PageRequest.of(pageNumber, pageSize));
         logger.info("Getting all simplified blogs with pagination");
 
         SimplifiedBlogResponsePagination responsePagination = new SimplifiedBlogResponsePagination();
@@ -172,14 +305,43 @@ public class BlogServiceImpl implements BlogService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public SimplifiedBlogResponsePagination getSimplifiedBlogs(String cursor, int pageSize, boolean includeTotal) {
+        Long afterId = BlogCursor.decode(cursor);
+        List<SimplifiedBlogView> rows = blogRepository.findSimplifiedBlogsAfter(afterId, Limit.of(pageSize + 1));
+        logger.info("Getting simplified blogs after id '{}'", afterId);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<SimplifiedBlogView> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        SimplifiedBlogResponsePagination responsePagination = new SimplifiedBlogResponsePagination();
+        responsePagination.setSimplifiedBlogResponseList(page.stream().map(data -> new SimplifiedBlogResponse(data.getTitle(), data.getText())).toList());
+        responsePagination.setViewedValueCount(page.size());
+        if (hasNext) {
+            responsePagination.setNextCursor(BlogCursor.encode(page.get(page.size() - 1).getId()));
+        }
+        if (includeTotal) {
+            Long estimatedCount = blogRepository.estimateBlogCount();
+            responsePagination.setTotalValue(estimatedCount == null ? blogRepository.count() : estimatedCount);
+            responsePagination.setTotalEstimated(estimatedCount != null);
+            responsePagination.setTotalPages((responsePagination.getTotalValue() + pageSize - 1) / pageSize);
+        }
+        return responsePagination;
+    }
+
+    @Override
+    @Transactional
     public void deleteUserBlog(Long blogId, Long userId) {
         UserClientDto user = userClientUtil.getAuthenticatedUser();
 
         logger.info("User has found with user id '{}'", user.getId());
-        Blog blog = blogRepository.findById(blogId).orElseThrow(() -> new ResourceNotFound("Blog does not exist with id: " + blogId));
-        if (user.getId().equals(blog.getUserId())) {
+        BlogSnapshot blog = blogCache.getBlog(blogId).orElseThrow(() -> new ResourceNotFound("Blog does not exist with id: " + blogId));
+        if (user.getId().equals(blog.userId())) {
             logger.info("Blog has found with id '{}'", blogId);
-            blogRepository.delete(blog);
+            blogRepository.deleteById(blogId);
+            evictBlog(blogId);
+            afterCommit(() -> tagIndex.removeBlog(blogId));
+            kafkaElasticBlogProducer.deleteEvent(blogId, blog.userId());
             logger.info("Blog with id '{}' has deleted successfully which belongs to user with id '{}'", blogId, user.getId());
         } else {
             throw new ResourceNotFound("Blog does not belong to this user with id: " + user.getId());
@@ -193,6 +355,97 @@ public class BlogServiceImpl implements BlogService {
         return elasticBlogRepository.searchByKeyword(keyword);
     }
 
+    private void checkBlogOwner(Long blogId, UserClientDto user) {
+        BlogSnapshot blog = blogCache.getBlog(blogId)
+                .orElseThrow(() -> {
+                    logger.error("Blog does not exist with id '{}'", blogId);
+                    return new ResourceNotFound("Blog does not exist with id: " + blogId);
+                });
+        if (!blog.userId().equals(user.getId())) {
+            logger.error("User with id '{}' has not any blog with id {}", user.getId(), blogId);
+            throw new ResourceNotFound("Blog with id: " + blogId + " does not belong to user with id: " + user.getId());
+        }
+    }
+
+    /**
+     * Replaces request tags with their canonical rows. The references only carry id and name,
+     * Hibernate writes just the blog_tags rows for them.
+     */
+    private Set<Tag> canonicalTags(Set<Tag> requestTags) {
+        if (requestTags == null) {
+            return new HashSet<>();
+        }
+        return requestTags.stream()
+                .map(Tag::getName)
+                .filter(name -> name != null && !name.isBlank())
+                .map(tagDictionary::getOrCreate)
+                .distinct()
+                .map(tagDto -> Tag.builder().id(tagDto.id()).name(tagDto.name()).build())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static Set<String> normalize(Collection<String> tagNames) {
+        return tagNames.stream().filter(name -> !name.isBlank()).map(TagDictionary::normalize).collect(Collectors.toSet());
+    }
+
+    private static List<String> tagNames(Blog blog) {
+        return blog.getTags().stream().map(Tag::getName).toList();
+    }
+
+    /**
+     * Drops the local snapshot and publishes the new state, which also evicts it on the other instances.
+     */
+    private void publishBlogChanged(Blog blog) {
+        evictBlog(blog.getId());
+        List<String> tagNames = tagNames(blog);
+        afterCommit(() -> tagIndex.replace(blog.getId(), tagNames));
+        kafkaElasticBlogProducer.createEvent(toElasticBlogDocument(blog));
+    }
+
+    /**
+     * Evicts the snapshot now and again once the transaction has committed, because a read that runs between
+     * the write and the commit still sees the old row and would cache it until the entry expires.
+     */
+    private void evictBlog(Long blogId) {
+        blogCache.evict(blogId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(() -> blogCache.evict(blogId));
+        }
+    }
+
+    /**
+     * Runs the action once the surrounding transaction has committed, so a rolled back write never
+     * reaches the in-memory tag index. Without a transaction it runs at once.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private ElasticBlogDocument toElasticBlogDocument(Blog blog) {
+        ElasticBlogDocument elasticBlogDocument = new ElasticBlogDocument();
+        elasticBlogDocument.setId(blog.getId());
+        elasticBlogDocument.setTitle(blog.getTitle());
+        elasticBlogDocument.setText(blog.getText());
+        elasticBlogDocument.setUserId(blog.getUserId());
+        elasticBlogDocument.setTags(blog.getTags().stream()
+                .map(tag -> new ElasticTag(tag.getId(), tag.getName())).toList());
+        return elasticBlogDocument;
+    }
+
+    /**
+     * Not read-only: users list their own blogs right after writing them, so this reads the primary.
+     */
+    @Override
+    @Transactional
     public UserBlogResponse getUserBlogs(Long userId) {
         UserClientDto authenticatedUser = userClientUtil.getAuthenticatedUser();
 
@@ -202,8 +455,7 @@ public class BlogServiceImpl implements BlogService {
         }
 
         logger.info("User has found with user id '{}'", user.getId());
-        List<Blog> userBlogs = blogRepository.getBlogsByUserId(authenticatedUser.getId());
-        List<BlogResponse> blogResponseList = userBlogs.stream().map(blog -> new BlogResponse(blog.getTitle(), blog.getText())).toList();
+        List<BlogResponse> blogResponseList = blogRepository.findBlogResponsesByUserId(authenticatedUser.getId());
 
         UserBlogResponse userBlogResponse = new UserBlogResponse();
         userBlogResponse.setUsername(user.getUsername());
@@ -2,6 +2,7 @@
 package com.scalefocus.blogservice.service.impl;
 
 
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
 import com.scalefocus.blogservice.dto.UserClientDto;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.entity.Image;
@@ -100,7 +101,7 @@ public class ImageServiceImpl implements ImageService {
 
         blogUtils.checkUserHasSpecificBlog(blogId, userClientDto.getId());
 
-        Image foundImage = imageRepository.findById(imageId)
+        Image foundImage = ReadWriteRoutingDataSource.readFromPrimary(() -> imageRepository.findById(imageId))
                 .orElseThrow(() -> new ResourceNotFound("image with id: " + imageId + " is not exist"));
 
         boolean doesImageHaveSpecificBlog = foundImage.getBlog().getId().equals(blogId);
@@ -131,7 +132,7 @@ public class ImageServiceImpl implements ImageService {
     @Override
     public ImageResourceResponse getImage(Long imageId) {
         try {
-            Image foundImage = imageRepository.findById(imageId)
+            Image foundImage = ReadWriteRoutingDataSource.readFromPrimary(() -> imageRepository.findById(imageId))
                     .orElseThrow(() -> new ResourceNotFound("image: " + imageId + " is not exist"));
             Path filePath = Paths.get(foundImage.getFilePath()).normalize();
             Resource resource = new UrlResource(filePath.toUri());
@@ -1,6 +1,7 @@
 
 package com.scalefocus.blogservice.service.impl;
 
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
 import com.scalefocus.blogservice.dto.UserClientDto;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.entity.Video;
@@ -87,7 +88,7 @@ public class VideoServiceImpl implements VideoService {
             throw new ResourceNotFound("User not authenticated");
         }
 
-        Video foundVideo = videoRepository.findById(videoId)
+        Video foundVideo = ReadWriteRoutingDataSource.readFromPrimary(() -> videoRepository.findById(videoId))
                 .orElseThrow(() -> new ResourceNotFound("video with id: " + videoId + " is not exist"));
         boolean doesVideoHaveSpecificBlog = foundVideo.getBlog().getId().equals(blogId);
         if (!doesVideoHaveSpecificBlog) {
@@ -111,7 +112,7 @@ public class VideoServiceImpl implements VideoService {
 
     public VideoResourceResponse getVideo(Long videoId) {
         try {
-            Video foundVideo = videoRepository.findById(videoId).orElseThrow(() -> new ResourceNotFound("video with id: " + videoId + " is not exist"));
+            Video foundVideo = ReadWriteRoutingDataSource.readFromPrimary(() -> videoRepository.findById(videoId)).orElseThrow(() -> new ResourceNotFound("video with id: " + videoId + " is not exist"));
             Path filePath = Paths.get(foundVideo.getFilePath()).normalize();
             Resource resource = new UrlResource(filePath.toUri());
             if (!resource.exists() || !resource.isReadable()) {
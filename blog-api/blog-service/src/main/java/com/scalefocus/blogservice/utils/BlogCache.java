@@ -0,0 +1,48 @@
+package com.scalefocus.blogservice.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
+import com.scalefocus.blogservice.dto.BlogSnapshot;
+import com.scalefocus.blogservice.repository.BlogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache of blog snapshots keyed by id, used for ownership checks.
+ * Entries are evicted on every write, locally and through the blog event topic.
+ * Misses load from the primary, so a blog is found right after it is created even while replicas lag.
+ */
+@Component
+public class BlogCache {
+
+    private final BlogRepository blogRepository;
+    private final Cache<Long, BlogSnapshot> blogs;
+
+    public BlogCache(BlogRepository blogRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.blog-cache-maximum-size:10000}") long maximumSize,
+                     @Value("${app.blog-cache-ttl-seconds:60}") long ttlSeconds) {
+        this.blogRepository = blogRepository;
+        this.blogs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, blogs, "blogs");
+    }
+
+    public Optional<BlogSnapshot> getBlog(Long blogId) {
+        return Optional.ofNullable(blogs.get(blogId, id -> ReadWriteRoutingDataSource.readFromPrimary(
+                () -> blogRepository.findSnapshotById(id).orElse(null))));
+    }
+
+    public void evict(Long blogId) {
+        blogs.invalidate(blogId);
+    }
+}
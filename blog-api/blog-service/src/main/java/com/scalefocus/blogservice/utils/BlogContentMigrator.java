@@ -0,0 +1,39 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.repository.BlogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Moves text still stored in the legacy blog.text column into BLOG_CONTENT at startup.
+ * Does nothing once the column is gone or every blog has its content row.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogContentMigrator {
+
+    private static final Logger LOGGER = LogManager.getLogger(BlogContentMigrator.class);
+    private static final String MIGRATION_SCRIPT = "db/move-blog-text-to-content.sql";
+
+    private final BlogRepository blogRepository;
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() {
+        if (blogRepository.countLegacyTextColumns() == 0) {
+            return;
+        }
+        long blogsToMigrate = blogRepository.countBlogsWithoutContent();
+        if (blogsToMigrate > 0) {
+            LOGGER.info("Moving the text of {} blogs into blog_content", blogsToMigrate);
+            new ResourceDatabasePopulator(new ClassPathResource(MIGRATION_SCRIPT)).execute(dataSource);
+        }
+    }
+}
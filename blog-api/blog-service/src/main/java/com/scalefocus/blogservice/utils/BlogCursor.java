@@ -0,0 +1,43 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination. It carries the id of the last blog of a page,
+ * so clients cannot depend on its format.
+ */
+public final class BlogCursor {
+
+    private static final String PREFIX = "blog:";
+
+    private BlogCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            long lastId = Long.parseLong(decoded.substring(PREFIX.length()));
+            // no page can end on a negative id or on the largest one, so such a cursor was not issued by us
+            if (lastId < 0 || lastId == Long.MAX_VALUE) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
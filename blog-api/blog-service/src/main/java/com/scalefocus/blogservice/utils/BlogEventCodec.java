@@ -0,0 +1,215 @@
+package com.scalefocus.blogservice.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.entity.ElasticTag;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary encoding of blog events. A value is a version byte, a flags byte and the body, which is
+ * Deflate-compressed from {@link #COMPRESSION_THRESHOLD} bytes on. The version 1 body holds id, title,
+ * text, user id and tags in that order. Numbers are varints offset by one and strings are a varint
+ * length offset by one followed by UTF-8, so 0 stands for null. Values starting with '{' are events
+ * written as JSON before this encoding and are still read.
+ */
+public final class BlogEventCodec {
+
+    static final byte VERSION_1 = 1;
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    private static final byte FLAG_DEFLATE = 1;
+    private static final byte JSON_START = '{';
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private BlogEventCodec() {
+    }
+
+    public static byte[] encode(ElasticBlogDocument document) {
+        Writer body = new Writer();
+        body.writeNullableLong(document.getId());
+        body.writeString(document.getTitle());
+        body.writeString(document.getText());
+        body.writeNullableLong(document.getUserId());
+        List<ElasticTag> tags = document.getTags();
+        if (tags == null) {
+            body.writeVarLong(0);
+        } else {
+            body.writeVarLong(tags.size() + 1L);
+            for (ElasticTag tag : tags) {
+                body.writeNullableLong(tag.getId());
+                body.writeString(tag.getName());
+            }
+        }
+
+        byte[] bytes = body.toByteArray();
+        byte flags = 0;
+        if (bytes.length >= COMPRESSION_THRESHOLD) {
+            byte[] compressed = deflate(bytes);
+            if (compressed.length < bytes.length) {
+                bytes = compressed;
+                flags = FLAG_DEFLATE;
+            }
+        }
+        byte[] value = new byte[bytes.length + 2];
+        value[0] = VERSION_1;
+        value[1] = flags;
+        System.arraycopy(bytes, 0, value, 2, bytes.length);
+        return value;
+    }
+
+    public static ElasticBlogDocument decode(byte[] value) {
+        if (value.length > 0 && value[0] == JSON_START) {
+            return decodeLegacyJson(value);
+        }
+        if (value.length < 2 || value[0] != VERSION_1) {
+            throw new SerializationException("Unknown blog event encoding version " + (value.length == 0 ? "none" : value[0]));
+        }
+        byte[] body = (value[1] & FLAG_DEFLATE) != 0 ? inflate(value, 2) : value;
+        Reader reader = new Reader(body, body == value ? 2 : 0);
+
+        ElasticBlogDocument document = new ElasticBlogDocument();
+        document.setId(reader.readNullableLong());
+        document.setTitle(reader.readString());
+        document.setText(reader.readString());
+        document.setUserId(reader.readNullableLong());
+        long tagCount = reader.readVarLong();
+        if (tagCount > 0) {
+            List<ElasticTag> tags = new ArrayList<>((int) Math.min(tagCount - 1, 1024));
+            for (long i = 1; i < tagCount; i++) {
+                tags.add(new ElasticTag(reader.readNullableLong(), reader.readString()));
+            }
+            document.setTags(tags);
+        }
+        return document;
+    }
+
+    private static ElasticBlogDocument decodeLegacyJson(byte[] value) {
+        try {
+            return LEGACY_JSON.readValue(value, ElasticBlogDocument.class);
+        } catch (IOException e) {
+            throw new SerializationException("Blog event is not valid JSON", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] value, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(value, offset, value.length - offset);
+            ByteArrayOutputStream output = new ByteArrayOutputStream((value.length - offset) * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new SerializationException("Compressed blog event is truncated");
+                }
+                output.write(buffer, 0, inflated);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Compressed blog event is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeNullableLong(Long value) {
+            writeVarLong(value == null ? 0 : value + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new SerializationException("Blog event is truncated");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Blog event holds a malformed number");
+        }
+
+        Long readNullableLong() {
+            long value = readVarLong();
+            return value == 0 ? null : value - 1;
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            if (length - 1 > bytes.length - position) {
+                throw new SerializationException("Blog event is truncated");
+            }
+            String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+    }
+}
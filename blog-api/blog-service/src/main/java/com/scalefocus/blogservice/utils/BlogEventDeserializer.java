@@ -0,0 +1,15 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for blog events, see {@link BlogEventCodec}. Delete events have no value.
+ */
+public class BlogEventDeserializer implements Deserializer<ElasticBlogDocument> {
+
+    @Override
+    public ElasticBlogDocument deserialize(String topic, byte[] value) {
+        return value == null ? null : BlogEventCodec.decode(value);
+    }
+}
@@ -0,0 +1,40 @@
+package com.scalefocus.blogservice.utils;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headers carried by every record on the blog event topic.
+ */
+public final class BlogEventHeaders {
+
+    public static final String BLOG_ID = "blog-id";
+    public static final String EVENT_TYPE = "blog-event-type";
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private BlogEventHeaders() {
+    }
+
+    public static void add(Headers headers, Long blogId, String eventType) {
+        headers.add(BLOG_ID, String.valueOf(blogId).getBytes(StandardCharsets.UTF_8));
+        headers.add(EVENT_TYPE, eventType.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long blogId(ConsumerRecord<?, ?> record) {
+        String value = lastValue(record, BLOG_ID);
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    public static boolean isDelete(ConsumerRecord<?, ?> record) {
+        return DELETE.equals(lastValue(record, EVENT_TYPE));
+    }
+
+    private static String lastValue(ConsumerRecord<?, ?> record, String key) {
+        Header header = record.headers().lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
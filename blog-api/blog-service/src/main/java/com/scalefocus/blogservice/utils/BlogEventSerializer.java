@@ -0,0 +1,15 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for blog events, see {@link BlogEventCodec}. Delete events have no value.
+ */
+public class BlogEventSerializer implements Serializer<ElasticBlogDocument> {
+
+    @Override
+    public byte[] serialize(String topic, ElasticBlogDocument document) {
+        return document == null ? null : BlogEventCodec.encode(document);
+    }
+}
@@ -0,0 +1,28 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.repository.BlogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the blog id allocator past ids inserted before blogs switched from IDENTITY
+ * to the pooled blog_seq table, so allocated blocks never collide with existing rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogIdSequenceAligner {
+
+    private static final Logger LOGGER = LogManager.getLogger(BlogIdSequenceAligner.class);
+
+    private final BlogRepository blogRepository;
+
+    @PostConstruct
+    public void align() {
+        if (blogRepository.alignIdSequence() > 0) {
+            LOGGER.info("Blog id sequence moved past the existing blog ids");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.scalefocus.blogservice.utils;
 
 
+import com.scalefocus.blogservice.dto.BlogSnapshot;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.exception.ResourceNotFound;
 import com.scalefocus.blogservice.repository.BlogRepository;
@@ -12,11 +13,16 @@ import org.springframework.stereotype.Component;
 public class BlogUtil {
 
     private final BlogRepository blogRepository;
+    private final BlogCache blogCache;
 
+    /**
+     * Checks ownership against the cached snapshot and returns a reference to the blog,
+     * so no query runs when the blog is cached.
+     */
     public Blog checkUserHasSpecificBlog(Long blogId, Long userId) {
-        Blog foundBlog = blogRepository.findById(blogId).orElseThrow(() -> new ResourceNotFound("Blog Not Found with id: " + blogId));
-        if (foundBlog.getUserId().equals(userId)) {
-            return foundBlog;
+        BlogSnapshot foundBlog = blogCache.getBlog(blogId).orElseThrow(() -> new ResourceNotFound("Blog Not Found with id: " + blogId));
+        if (foundBlog.userId().equals(userId)) {
+            return blogRepository.getReferenceById(blogId);
         } else {
             throw new ResourceNotFound("User does not have specific blog");
         }
@@ -0,0 +1,98 @@
+package com.scalefocus.blogservice.utils;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as UTF-8 and Deflate-compresses it from {@link #COMPRESSION_THRESHOLD} bytes on.
+ * Encoded values start with a NUL marker byte followed by the format byte. Values without the marker
+ * are plain UTF-8, which keeps rows written before compression readable.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    private static final byte MARKER = 0;
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= COMPRESSION_THRESHOLD) {
+            byte[] compressed = deflate(bytes);
+            if (compressed.length < bytes.length) {
+                return withHeader(DEFLATE, compressed);
+            }
+        }
+        return bytes.length > 0 && bytes[0] == MARKER ? withHeader(RAW, bytes) : bytes;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        if (column.length < 2 || column[0] != MARKER) {
+            return new String(column, StandardCharsets.UTF_8);
+        }
+        byte[] body = Arrays.copyOfRange(column, 2, column.length);
+        return new String(column[1] == DEFLATE ? inflate(body) : body, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] withHeader(byte format, byte[] body) {
+        byte[] column = new byte[body.length + 2];
+        column[0] = MARKER;
+        column[1] = format;
+        System.arraycopy(body, 0, column, 2, body.length);
+        return column;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Compressed blog text is truncated");
+                }
+                output.write(buffer, 0, inflated);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed blog text is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
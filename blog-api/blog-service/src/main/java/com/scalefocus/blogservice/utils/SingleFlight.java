@@ -0,0 +1,85 @@
+package com.scalefocus.blogservice.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight call.
+ * The key is released as soon as the call completes, so nothing is cached.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call on the first caller's thread; callers arriving meanwhile wait for its result.
+     * Whatever the call throws, errors included, is handed to the waiting callers as well.
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = call.get();
+            created.complete(value);
+            return value;
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Shares the future returned by the first caller until it completes.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(unwrap(error));
+                } else {
+                    created.complete(value);
+                }
+            });
+        } catch (Throwable e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,85 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
+import com.scalefocus.blogservice.dto.TagDto;
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.repository.TagRepository;
+import com.scalefocus.blogservice.repository.TagView;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical tag name to tag id dictionary. Warmed at startup, after {@link TagMergeMigrator} has merged
+ * duplicate tags, and extended when a new name is first used, so attaching a known tag needs no tag query.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagDictionary {
+
+    private static final Logger LOGGER = LogManager.getLogger(TagDictionary.class);
+    private static final Pattern EDGE_WHITESPACE = Pattern.compile("^\\s+|\\s+$", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern INNER_WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private final TagRepository tagRepository;
+    private final Map<String, TagDto> tags = new ConcurrentHashMap<>();
+
+    /**
+     * Trims, collapses inner whitespace and lower-cases a tag name. Whitespace means the Unicode
+     * White_Space set, the same set as [[:space:]] in the SQL of merge-duplicate-tags.sql.
+     */
+    public static String normalize(String tagName) {
+        String trimmed = EDGE_WHITESPACE.matcher(tagName).replaceAll("");
+        return INNER_WHITESPACE.matcher(trimmed).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (TagView tag : ReadWriteRoutingDataSource.readFromPrimary(tagRepository::findAllTagViews)) {
+            tags.merge(tag.getName(), new TagDto(tag.getId(), tag.getName()), (first, second) -> first.id() <= second.id() ? first : second);
+        }
+        LOGGER.info("Tag dictionary warmed with {} tags", tags.size());
+    }
+
+    /**
+     * Returns the canonical tag for the name, inserting it on first use. Call it before opening a
+     * transaction, so the insert commits on its own instead of holding a second pool connection.
+     * Inside a transaction the new id is only cached once that transaction has committed.
+     */
+    public TagDto getOrCreate(String tagName) {
+        String name = normalize(tagName);
+        TagDto tag = tags.get(name);
+        if (tag != null) {
+            return tag;
+        }
+        tagRepository.insertIfAbsent(name);
+        Long tagId = ReadWriteRoutingDataSource.readFromPrimary(() -> tagRepository.findFirstByNameOrderByIdAsc(name))
+                .map(TagView::getId)
+                .orElseThrow(() -> new ResourceNotFound("Tag does not exist with name: " + name));
+        TagDto created = new TagDto(tagId, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tags.putIfAbsent(name, created);
+                }
+            });
+            return created;
+        }
+        TagDto existing = tags.putIfAbsent(name, created);
+        return existing == null ? created : existing;
+    }
+}
@@ -0,0 +1,222 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.repository.BlogRepository;
+import com.scalefocus.blogservice.repository.BlogTagView;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag name to blog id index kept as compressed bitmaps, so multi-tag filters
+ * are answered with bitmap AND/OR instead of joins through blog_tags.
+ * Built from the database at startup and kept current by the blog write paths and blog events.
+ * A blog id to tag names reverse index lets a blog be dropped from just its own tags.
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger LOGGER = LogManager.getLogger(TagIndex.class);
+
+    private final BlogRepository blogRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Roaring64Bitmap> blogsByTag = new HashMap<>();
+    private Map<Long, Set<String>> tagsByBlog = new HashMap<>();
+    // blogs written while a rebuild reads the database, their live entries win over the rebuilt ones
+    private Set<Long> changedDuringRebuild;
+
+    public TagIndex(BlogRepository blogRepository) {
+        this.blogRepository = blogRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<BlogTagView> blogTags;
+        try {
+            blogTags = blogRepository.findAllBlogTags();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        Map<String, Roaring64Bitmap> index = new HashMap<>();
+        Map<Long, Set<String>> reverseIndex = new HashMap<>();
+        for (BlogTagView blogTag : blogTags) {
+            addToIndex(index, reverseIndex, blogTag.getTagName(), blogTag.getBlogId());
+        }
+        index.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            for (Long blogId : changedDuringRebuild) {
+                removeFromIndex(index, reverseIndex, blogId);
+                for (String tagName : tagsByBlog.getOrDefault(blogId, Set.of())) {
+                    addToIndex(index, reverseIndex, tagName, blogId);
+                }
+            }
+            changedDuringRebuild = null;
+            blogsByTag = index;
+            tagsByBlog = reverseIndex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Tag index built with {} tags from {} blog tag rows", index.size(), blogTags.size());
+    }
+
+    public void add(String tagName, Long blogId) {
+        lock.writeLock().lock();
+        try {
+            markChanged(blogId);
+            addToIndex(blogsByTag, tagsByBlog, tagName, blogId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String tagName, Long blogId) {
+        lock.writeLock().lock();
+        try {
+            markChanged(blogId);
+            Set<String> tagNames = tagsByBlog.get(blogId);
+            if (tagNames != null && tagNames.remove(tagName)) {
+                removeFromTag(blogsByTag, tagName, blogId);
+                if (tagNames.isEmpty()) {
+                    tagsByBlog.remove(blogId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every tag of the blog with the given ones.
+     */
+    public void replace(Long blogId, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            markChanged(blogId);
+            removeFromIndex(blogsByTag, tagsByBlog, blogId);
+            for (String tagName : tagNames) {
+                addToIndex(blogsByTag, tagsByBlog, tagName, blogId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBlog(Long blogId) {
+        lock.writeLock().lock();
+        try {
+            markChanged(blogId);
+            removeFromIndex(blogsByTag, tagsByBlog, blogId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids greater than {@code afterId}, in ascending order, of the blogs
+     * tagged with every name in {@code all} and with at least one name in {@code any}.
+     * An empty collection does not restrict the result, but at least one must be non-empty.
+     */
+    public TagIndexPage find(Collection<String> all, Collection<String> any, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap matched = null;
+            for (String tagName : all) {
+                Roaring64Bitmap blogs = blogsByTag.getOrDefault(tagName, new Roaring64Bitmap());
+                if (matched == null) {
+                    matched = blogs.clone();
+                } else {
+                    matched.and(blogs);
+                }
+            }
+            if (!any.isEmpty()) {
+                Roaring64Bitmap anyMatched = new Roaring64Bitmap();
+                for (String tagName : any) {
+                    Roaring64Bitmap blogs = blogsByTag.get(tagName);
+                    if (blogs != null) {
+                        anyMatched.or(blogs);
+                    }
+                }
+                if (matched == null) {
+                    matched = anyMatched;
+                } else {
+                    matched.and(anyMatched);
+                }
+            }
+            if (matched == null) {
+                matched = new Roaring64Bitmap();
+            }
+
+            List<Long> blogIds = new ArrayList<>(limit);
+            PeekableLongIterator iterator = matched.getLongIteratorFrom(afterId + 1);
+            while (iterator.hasNext() && blogIds.size() < limit) {
+                blogIds.add(iterator.next());
+            }
+            return new TagIndexPage(blogIds, iterator.hasNext(), matched.getLongCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void markChanged(Long blogId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(blogId);
+        }
+    }
+
+    private static void addToIndex(Map<String, Roaring64Bitmap> index, Map<Long, Set<String>> reverseIndex,
+                                   String tagName, Long blogId) {
+        index.computeIfAbsent(tagName, name -> new Roaring64Bitmap()).addLong(blogId);
+        reverseIndex.computeIfAbsent(blogId, id -> new HashSet<>()).add(tagName);
+    }
+
+    /**
+     * Removes the blog from the bitmaps of its own tags only, found through the reverse index.
+     */
+    private static void removeFromIndex(Map<String, Roaring64Bitmap> index, Map<Long, Set<String>> reverseIndex, Long blogId) {
+        Set<String> tagNames = reverseIndex.remove(blogId);
+        if (tagNames != null) {
+            tagNames.forEach(tagName -> removeFromTag(index, tagName, blogId));
+        }
+    }
+
+    private static void removeFromTag(Map<String, Roaring64Bitmap> index, String tagName, Long blogId) {
+        Roaring64Bitmap blogs = index.get(tagName);
+        if (blogs != null) {
+            blogs.removeLong(blogId);
+            if (blogs.isEmpty()) {
+                index.remove(tagName);
+            }
+        }
+    }
+
+    public record TagIndexPage(List<Long> blogIds, boolean hasNext, long matchedCount) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.scalefocus.blogservice.utils;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Merges tags whose names only differ by case or whitespace at startup, before the tag dictionary is warmed.
+ * Instances starting together queue on a MySQL named lock, so the script runs once and the others find
+ * nothing left to merge. Count and script run on the lock's own connection, which always is the primary.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagMergeMigrator {
+
+    private static final Logger LOGGER = LogManager.getLogger(TagMergeMigrator.class);
+    private static final String MIGRATION_SCRIPT = "db/merge-duplicate-tags.sql";
+    private static final int LOCK_WAIT_SECONDS = 60;
+
+    static final String LOCK_NAME = "blog_tag_merge";
+    static final String COUNT_TAGS_TO_MERGE = "SELECT COUNT(*) FROM tag t " +
+            "WHERE BINARY t.name <> BINARY LOWER(REGEXP_REPLACE(REGEXP_REPLACE(t.name, '^[[:space:]]+|[[:space:]]+$', ''), '[[:space:]]+', ' ')) " +
+            "OR EXISTS (SELECT 1 FROM tag o WHERE o.name = t.name AND o.id < t.id)";
+
+    private final DataSource dataSource;
+
+    @PostConstruct
+    public void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!acquire(connection)) {
+                throw new IllegalStateException("Tag merge lock was not released within " + LOCK_WAIT_SECONDS + " seconds");
+            }
+            try {
+                long tagsToMerge = countTagsToMerge(connection);
+                if (tagsToMerge > 0) {
+                    LOGGER.info("Merging {} duplicate or non-normalized tags", tagsToMerge);
+                    new ResourceDatabasePopulator(new ClassPathResource(MIGRATION_SCRIPT)).populate(connection);
+                }
+            } finally {
+                release(connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Duplicate tags could not be merged", e);
+        }
+    }
+
+    private boolean acquire(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_WAIT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private long countTagsToMerge(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_TAGS_TO_MERGE);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private void release(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
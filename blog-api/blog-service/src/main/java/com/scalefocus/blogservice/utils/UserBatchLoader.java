@@ -0,0 +1,165 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.dto.UserClientDto;
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects single user lookups made within a short window and resolves them with one
+ * call to the user-service batch endpoint. Lookups for the same id share one future.
+ * A full batch is sent from the calling thread; a batch closed by the window timer is sent
+ * from a small dispatch pool, so a slow request never holds up the timer of the next batch.
+ * The pool queues a bounded number of batches; when it is full the batch fails at once
+ * instead of waiting behind requests that are already late.
+ */
+@Component
+public class UserBatchLoader {
+
+    private static final Logger logger = LogManager.getLogger(UserBatchLoader.class);
+
+    private final RestTemplate restTemplate;
+    private final UserServiceCallGuard userServiceCallGuard;
+    private final long windowMilliseconds;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor dispatcher;
+
+    private Map<Long, CompletableFuture<UserClientDto>> pending = new HashMap<>();
+
+    public UserBatchLoader(RestTemplate restTemplate,
+                           UserServiceCallGuard userServiceCallGuard,
+                           @Value("${app.user-batch-window-milliseconds:5}") long windowMilliseconds,
+                           @Value("${app.user-batch-max-size:100}") int maxBatchSize,
+                           @Value("${app.user-service-max-concurrent-calls:25}") int maxConcurrentCalls,
+                           @Value("${app.user-batch-dispatch-queue-capacity:100}") int dispatchQueueCapacity,
+                           @Value("${app.user-service-batch-max-size:500}") int userServiceBatchMaxSize) {
+        if (maxBatchSize > userServiceBatchMaxSize) {
+            throw new IllegalArgumentException("app.user-batch-max-size " + maxBatchSize
+                    + " exceeds the user-service batch limit " + userServiceBatchMaxSize);
+        }
+        this.restTemplate = restTemplate;
+        this.userServiceCallGuard = userServiceCallGuard;
+        this.windowMilliseconds = windowMilliseconds;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger dispatcherThreads = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "user-batch-dispatch-" + dispatcherThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.dispatcher.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<UserClientDto> load(Long userId) {
+        Map<Long, CompletableFuture<UserClientDto>> batch = null;
+        CompletableFuture<UserClientDto> future;
+        synchronized (this) {
+            future = pending.get(userId);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(userId, future);
+            if (pending.size() == 1) {
+                scheduler.schedule(this::dispatchPendingAsync, windowMilliseconds, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    private void dispatchPendingAsync() {
+        try {
+            dispatcher.execute(this::dispatchPending);
+        } catch (RejectedExecutionException e) {
+            Map<Long, CompletableFuture<UserClientDto>> batch;
+            synchronized (this) {
+                batch = takePending();
+            }
+            logger.error("Dispatch queue is full, failing {} user lookups", batch.size());
+            UserServiceUnavailableException unavailable =
+                    new UserServiceUnavailableException("Too many user lookups waiting for user service");
+            batch.values().forEach(future -> future.completeExceptionally(unavailable));
+        }
+    }
+
+    private void dispatchPending() {
+        Map<Long, CompletableFuture<UserClientDto>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<Long, CompletableFuture<UserClientDto>> takePending() {
+        Map<Long, CompletableFuture<UserClientDto>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<UserClientDto>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<UserClientDto> users = userServiceCallGuard.call(() -> restTemplate.exchange(
+                    "http://user-service/api/users/batch", HttpMethod.POST,
+                    new HttpEntity<>(Map.of("userIds", batch.keySet())),
+                    new ParameterizedTypeReference<List<UserClientDto>>() {
+                    }).getBody());
+            logger.info("Resolved {} user lookups with one batch request", batch.size());
+
+            if (users != null) {
+                users.forEach(user -> {
+                    CompletableFuture<UserClientDto> future = batch.get(user.getId());
+                    if (future != null) {
+                        future.complete(user);
+                    }
+                });
+            }
+            batch.forEach((userId, future) ->
+                    future.completeExceptionally(new ResourceNotFound("User does not exist with id: " + userId)));
+        } catch (RuntimeException e) {
+            logger.error("Batch user lookup failed", e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        dispatcher.shutdown();
+    }
+}
@@ -1,22 +1,101 @@
 package com.scalefocus.blogservice.utils;
 
 import com.scalefocus.blogservice.dto.UserClientDto;
+import com.scalefocus.blogservice.exception.UserNotAuthenticatedException;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import com.scalefocus.blogservice.security.JwtTokenVerifier;
+import com.scalefocus.blogservice.security.TokenHasher;
+import com.scalefocus.blogservice.security.TokenRevocationChecker;
+import com.scalefocus.blogservice.security.VerifiedIdentityCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Component
 @RequiredArgsConstructor
 public class UserClientUtil {
 
+    private static final Logger logger = LogManager.getLogger(UserClientUtil.class);
+
     private final RestTemplate restTemplate;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final TokenRevocationChecker tokenRevocationChecker;
+    private final UserBatchLoader userBatchLoader;
+    private final UserServiceCallGuard userServiceCallGuard;
+    private final VerifiedIdentityCache verifiedIdentityCache;
+    private final SingleFlight<String, UserClientDto> authenticatedUserLookups = new SingleFlight<>();
+    private final SingleFlight<Long, UserClientDto> userLookups = new SingleFlight<>();
 
+    /**
+     * Resolves the requesting user from the signed claims of the bearer token.
+     * user-service is only called for the cached token epoch check, or for tokens
+     * issued before the user id claim existed. While user-service is unavailable the
+     * identity last verified for the same token is used instead.
+     */
     public UserClientDto getAuthenticatedUser() {
-        return restTemplate.getForObject("http://user-service/api/users/getUserDetails", UserClientDto.class);
+        String token = getBearerToken();
+        if (token == null) {
+            return fetchAuthenticatedUser();
+        }
+
+        try {
+            UserClientDto user = resolveAuthenticatedUser(token);
+            verifiedIdentityCache.put(token, user);
+            return user;
+        } catch (UserServiceUnavailableException e) {
+            return verifiedIdentityCache.get(token)
+                    .map(user -> {
+                        logger.warn("User service unavailable, using last verified identity of user with id '{}'", user.getId());
+                        return user;
+                    })
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private UserClientDto resolveAuthenticatedUser(String token) {
+        Claims claims = jwtTokenVerifier.verify(token)
+                .orElseThrow(() -> new UserNotAuthenticatedException("User not authenticated"));
+        Long userId = claims.get(JwtTokenVerifier.USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            return authenticatedUserLookups.execute(TokenHasher.hash(token), this::fetchAuthenticatedUser);
+        }
+
+        Integer tokenEpoch = claims.get(JwtTokenVerifier.TOKEN_EPOCH_CLAIM, Integer.class);
+        if (!tokenRevocationChecker.isActive(userId, tokenEpoch == null ? 0 : tokenEpoch)) {
+            throw new UserNotAuthenticatedException("User not authenticated");
+        }
+        return new UserClientDto(userId, claims.getSubject());
     }
 
+    /**
+     * Looks the user up through {@link UserBatchLoader}. Lookups of a user whose request is
+     * still in flight share its result instead of starting another one.
+     */
     public UserClientDto findUser(Long userId) {
-        return restTemplate.getForObject("http://user-service/api/users/{userId}", UserClientDto.class, userId);
+        return SingleFlight.join(userLookups.executeAsync(userId, () -> userBatchLoader.load(userId)));
+    }
+
+    private UserClientDto fetchAuthenticatedUser() {
+        return userServiceCallGuard.call(() ->
+                restTemplate.getForObject("http://user-service/api/users/getUserDetails", UserClientDto.class));
+    }
+
+    private String getBearerToken() {
+        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        String bearerToken = requestAttributes.getRequest().getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
     }
 
 }
@@ -0,0 +1,70 @@
+package com.scalefocus.blogservice.utils;
+
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserNotAuthenticatedException;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and concurrency bulkhead shared by every call blog-service makes to user-service.
+ * Rejected and failed calls surface as {@link UserServiceUnavailableException}.
+ */
+@Component
+public class UserServiceCallGuard {
+
+    private static final Logger logger = LogManager.getLogger(UserServiceCallGuard.class);
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public UserServiceCallGuard(@Value("${app.user-service-failure-rate-threshold:50}") float failureRateThreshold,
+                                @Value("${app.user-service-slow-call-milliseconds:2000}") long slowCallMilliseconds,
+                                @Value("${app.user-service-open-state-milliseconds:10000}") long openStateMilliseconds,
+                                @Value("${app.user-service-max-concurrent-calls:25}") int maxConcurrentCalls) {
+        this.circuitBreaker = CircuitBreaker.of("user-service", CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMilliseconds))
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(Duration.ofMillis(openStateMilliseconds))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .ignoreExceptions(ResourceNotFound.class, UserNotAuthenticatedException.class, BulkheadFullException.class)
+                .build());
+        this.bulkhead = Bulkhead.of("user-service", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("user-service circuit breaker moved {}", event.getStateTransition()));
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, supplier));
+        } catch (CallNotPermittedException e) {
+            throw new UserServiceUnavailableException("User service is unavailable");
+        } catch (BulkheadFullException e) {
+            throw new UserServiceUnavailableException("Too many concurrent calls to user service");
+        } catch (ResourceAccessException e) {
+            throw new UserServiceUnavailableException("User service did not respond: " + e.getMessage());
+        }
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,25 @@
+-- Merges tags whose names only differ by case or whitespace into the oldest row
+-- and normalizes every name, so the unique constraint on tag.name can be created.
+-- Names are normalized like TagDictionary.normalize: Unicode whitespace is stripped
+-- at both ends, inner runs become one space and the name is lower-cased.
+CREATE TEMPORARY TABLE tag_merge AS
+SELECT t.id AS old_id, k.keep_id
+FROM tag t
+         JOIN (SELECT LOWER(REGEXP_REPLACE(REGEXP_REPLACE(name, '^[[:space:]]+|[[:space:]]+$', ''), '[[:space:]]+', ' ')) AS normalized_name, MIN(id) AS keep_id
+               FROM tag
+               GROUP BY normalized_name) k
+              ON k.normalized_name = LOWER(REGEXP_REPLACE(REGEXP_REPLACE(t.name, '^[[:space:]]+|[[:space:]]+$', ''), '[[:space:]]+', ' '))
+WHERE t.id <> k.keep_id;
+
+INSERT IGNORE INTO blog_tags (blog_id, tag_id)
+SELECT bt.blog_id, m.keep_id
+FROM blog_tags bt
+         JOIN tag_merge m ON m.old_id = bt.tag_id;
+
+DELETE bt FROM blog_tags bt JOIN tag_merge m ON m.old_id = bt.tag_id;
+
+DELETE t FROM tag t JOIN tag_merge m ON m.old_id = t.id;
+
+UPDATE tag SET name = LOWER(REGEXP_REPLACE(REGEXP_REPLACE(name, '^[[:space:]]+|[[:space:]]+$', ''), '[[:space:]]+', ' '));
+
+DROP TEMPORARY TABLE tag_merge;
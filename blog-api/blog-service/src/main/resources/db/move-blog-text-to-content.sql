@@ -0,0 +1,17 @@
+-- Moves text written before BLOG_CONTENT existed into it and fills in the excerpts.
+-- Content rows reuse the blog id, the allocator is moved past them afterwards.
+INSERT INTO blog_content (id, text)
+SELECT b.id, b.text
+FROM blog b
+WHERE b.content_id IS NULL
+  AND b.text IS NOT NULL;
+
+UPDATE blog
+SET content_id = id,
+    excerpt    = LEFT(text, 200)
+WHERE content_id IS NULL
+  AND text IS NOT NULL;
+
+UPDATE blog_content_seq
+SET next_val = (SELECT COALESCE(MAX(id), 0) + 50 FROM blog_content)
+WHERE next_val < (SELECT COALESCE(MAX(id), 0) + 50 FROM blog_content);
@@ -8,12 +8,18 @@ import com.scalefocus.blogservice.entity.Tag;
 import com.scalefocus.blogservice.producer.KafkaElasticBlogProducer;
 import com.scalefocus.blogservice.repository.BlogRepository;
 import com.scalefocus.blogservice.repository.ElasticBlogRepository;
+import com.scalefocus.blogservice.request.BlogBulkRequest;
 import com.scalefocus.blogservice.request.BlogCreationRequest;
 import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
 import com.scalefocus.blogservice.response.UserBlogResponse;
+import com.scalefocus.blogservice.service.BlogService;
+import com.scalefocus.blogservice.utils.BlogCursor;
 import com.scalefocus.blogservice.utils.UserClientUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,8 +34,10 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -38,8 +46,11 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource("classpath:application-test.properties")
@@ -59,6 +70,15 @@ class BlogServiceApplicationTests extends AbstractMysqlContainer {
     @Autowired
     private ElasticBlogRepository elasticBlogRepository;
 
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @MockBean
     private KafkaElasticBlogProducer kafkaElasticBlogProducer;
 
@@ -108,6 +128,26 @@ class BlogServiceApplicationTests extends AbstractMysqlContainer {
         assertThat(blogRepository.findAll().size()).isGreaterThanOrEqualTo(1);
     }
 
+    @Test
+    public void testBulkSavingBlogs_insertsInJdbcBatches() {
+        List<BlogCreationRequest> blogs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            blogs.add(BlogCreationRequest.builder().title("bulk title" + i).text("bulk text" + i).userId(userId).build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BlogDto> savedBlogs = testRestTemplate.exchange(baseUrl + "/bulk", HttpMethod.POST,
+                new HttpEntity<>(new BlogBulkRequest(blogs, null), null),
+                new ParameterizedTypeReference<List<BlogDto>>() {
+                }).getBody();
+
+        assertEquals(120, savedBlogs.size());
+        assertEquals(120L, savedBlogs.stream().map(BlogDto::id).distinct().count());
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20L);
+        verify(kafkaElasticBlogProducer, times(1)).createEvents(anyList());
+    }
+
     @Test
     public void testGettingAllBlogs() {
 
@@ -217,6 +257,105 @@ class BlogServiceApplicationTests extends AbstractMysqlContainer {
 
     }
 
+    @Test
+    public void testGettingSimplifiedBlogResponse_withCursor() {
+        String simplifiedBlogUrl = baseUrl + "/simplified?pageSize={pageSize}";
+
+        SimplifiedBlogResponsePagination firstPage = testRestTemplate.exchange(
+                        simplifiedBlogUrl,
+                        HttpMethod.GET,
+                        null,
+                        SimplifiedBlogResponsePagination.class, 1)
+                .getBody();
+
+        assertNotNull(firstPage);
+        assertThat(firstPage.getSimplifiedBlogResponseList().size()).isEqualTo(1);
+        assertNotNull(firstPage.getNextCursor());
+
+        SimplifiedBlogResponsePagination secondPage = testRestTemplate.exchange(
+                        simplifiedBlogUrl + "&cursor={cursor}",
+                        HttpMethod.GET,
+                        null,
+                        SimplifiedBlogResponsePagination.class, 1, firstPage.getNextCursor())
+                .getBody();
+
+        assertNotNull(secondPage);
+        assertThat(secondPage.getSimplifiedBlogResponseList().get(0).title())
+                .isNotEqualTo(firstPage.getSimplifiedBlogResponseList().get(0).title());
+    }
+
+    @Test
+    public void testExportingAllBlogs_asNdjson() {
+        ResponseEntity<String> exportResponse = testRestTemplate.getForEntity(baseUrl + "/export", String.class);
+
+        assertThat(exportResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertNotNull(exportResponse.getBody());
+        assertThat(exportResponse.getBody().lines().count()).isEqualTo(blogRepository.count());
+        assertThat(exportResponse.getBody().lines().allMatch(line -> line.startsWith("{\"id\":"))).isTrue();
+    }
+
+    @Test
+    public void testListEndpoints_runOneStatementPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        SimplifiedBlogResponsePagination simplifiedBlogs = blogService.getSimplifiedBlogs(null, 2, false);
+        assertThat(simplifiedBlogs.getSimplifiedBlogResponseList().size()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(statistics.getCollectionLoadCount()).isEqualTo(0L);
+
+        statistics.clear();
+        UserBlogResponse userBlogs = blogService.getUserBlogs(userId);
+        assertThat(userBlogs.getBlogs().size()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(statistics.getCollectionLoadCount()).isEqualTo(0L);
+
+        statistics.clear();
+        List<BlogDto> blogs = blogService.getAllBlogs();
+        assertThat(blogs.size()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testCursorPageLatency_staysFlat_onDeepPages() {
+        long firstId = 1_000_000L;
+        int pageSize = 10;
+        int pages = 10_000;
+        insertBlogs(firstId, pageSize * pages);
+        try {
+            String firstPageCursor = BlogCursor.encode(firstId - 1);
+            String deepPageCursor = BlogCursor.encode(firstId + (long) pageSize * (pages - 1) - 1);
+            blogService.getSimplifiedBlogs(firstPageCursor, pageSize, false);
+            blogService.getSimplifiedBlogs(deepPageCursor, pageSize, false);
+
+            long firstPageNanos = measureCursorPage(firstPageCursor, pageSize);
+            long deepPageNanos = measureCursorPage(deepPageCursor, pageSize);
+
+            assertThat(blogService.getSimplifiedBlogs(deepPageCursor, pageSize, false).getSimplifiedBlogResponseList().size())
+                    .isEqualTo(pageSize);
+            assertThat(deepPageNanos).isLessThan(firstPageNanos * 3 + 20_000_000L);
+        } finally {
+            jdbcTemplate.update("DELETE FROM blog WHERE id >= ?", firstId);
+        }
+    }
+
+    private long measureCursorPage(String cursor, int pageSize) {
+        int attempts = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < attempts; i++) {
+            blogService.getSimplifiedBlogs(cursor, pageSize, false);
+        }
+        return (System.nanoTime() - start) / attempts;
+    }
+
+    private void insertBlogs(long firstId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{firstId + i, "Seek Title" + i, "Seek Text" + i, userId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO blog(id, title, excerpt, user_id) VALUES (?, ?, ?, ?)", rows);
+    }
+
     @Test
     public void testingDeleteUserBlog() {
         String deleteUserBlogUrl = baseUrl + "/{blogId}/{userId}";
@@ -0,0 +1,97 @@
+package com.scalefocus.blogservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.entity.ElasticTag;
+import com.scalefocus.blogservice.utils.BlogEventDeserializer;
+import com.scalefocus.blogservice.utils.BlogEventSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary blog event encoding with the JSON path it replaced, where the consumer read
+ * the value into a map and converted that into the document. Run the main method from the IDE or with
+ * the test classpath; it prints the bytes per event for each text size before the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlogEventEncodingBenchmark {
+
+    private static final String TOPIC = "elastic.blog.saved-event";
+
+    @Param({"200", "5000"})
+    private int textLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlogEventSerializer binarySerializer = new BlogEventSerializer();
+    private final BlogEventDeserializer binaryDeserializer = new BlogEventDeserializer();
+
+    private ElasticBlogDocument document;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        document = document(textLength);
+        json = objectMapper.writeValueAsBytes(document);
+        binary = binarySerializer.serialize(TOPIC, document);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binarySerializer.serialize(TOPIC, document);
+    }
+
+    @Benchmark
+    public ElasticBlogDocument decodeJsonThroughMap() throws Exception {
+        Map<?, ?> value = objectMapper.readValue(json, Map.class);
+        return objectMapper.convertValue(value, ElasticBlogDocument.class);
+    }
+
+    @Benchmark
+    public ElasticBlogDocument decodeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binary);
+    }
+
+    private static ElasticBlogDocument document(int textLength) {
+        StringBuilder text = new StringBuilder(textLength);
+        while (text.length() < textLength) {
+            text.append("A blog paragraph about event encoding, partitions and search indexing. ");
+        }
+        text.setLength(textLength);
+        return new ElasticBlogDocument(123456L, "Encoding blog events compactly", text.toString(), 42L,
+                List.of(new ElasticTag(1L, "kafka"), new ElasticTag(2L, "elasticsearch"), new ElasticTag(3L, "java")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BlogEventSerializer binarySerializer = new BlogEventSerializer();
+        for (int textLength : new int[]{200, 5000}) {
+            ElasticBlogDocument document = document(textLength);
+            System.out.printf("text length %d: json %d bytes, binary %d bytes%n", textLength,
+                    objectMapper.writeValueAsBytes(document).length, binarySerializer.serialize(TOPIC, document).length);
+        }
+        run();
+    }
+
+    private static void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BlogEventEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
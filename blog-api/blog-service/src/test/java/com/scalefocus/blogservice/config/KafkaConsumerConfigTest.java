@@ -0,0 +1,79 @@
+package com.scalefocus.blogservice.config;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.utils.BlogEventDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class KafkaConsumerConfigTest {
+
+    @Mock
+    private KafkaOperations<Object, Object> rawValueTemplate;
+    @Mock
+    private KafkaOperations<Object, Object> blogEventTemplate;
+
+    private DeadLetterPublishingRecoverer recoverer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(CompletableFuture.completedFuture(null)).when(rawValueTemplate).send(any(ProducerRecord.class));
+        doReturn(CompletableFuture.completedFuture(null)).when(blogEventTemplate).send(any(ProducerRecord.class));
+        recoverer = KafkaConsumerConfig.deadLetterRecoverer("blog-topic-dlt", rawValueTemplate, blogEventTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCorruptValue_isPublishedToTheDltAsRawBytes() {
+        byte[] corrupt = {9, 0, 1};
+        RecordHeaders headers = new RecordHeaders();
+        try (ErrorHandlingDeserializer<ElasticBlogDocument> deserializer = new ErrorHandlingDeserializer<>(new BlogEventDeserializer())) {
+            assertThat(deserializer.deserialize("blog-topic", headers, corrupt)).isNull();
+        }
+        ConsumerRecord<Long, ElasticBlogDocument> record = new ConsumerRecord<>("blog-topic", 0, 5L,
+                ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE, ConsumerRecord.NULL_SIZE,
+                ConsumerRecord.NULL_SIZE, 1L, null, headers, Optional.empty());
+
+        recoverer.accept(record, new IllegalArgumentException("Blog event at offset 5 could not be decoded"));
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(rawValueTemplate).send(captor.capture());
+        assertThat(captor.getValue().topic()).isEqualTo("blog-topic-dlt");
+        assertArrayEquals(corrupt, (byte[]) captor.getValue().value());
+        verify(blogEventTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDecodedValue_isPublishedWithTheBlogEventTemplate() {
+        ElasticBlogDocument elasticBlogDocument = new ElasticBlogDocument();
+        elasticBlogDocument.setId(2L);
+        ConsumerRecord<Long, ElasticBlogDocument> record = new ConsumerRecord<>("blog-topic", 0, 6L, 1L, elasticBlogDocument);
+
+        recoverer.accept(record, new IllegalStateException("elasticsearch unavailable"));
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(blogEventTemplate).send(captor.capture());
+        assertThat(captor.getValue().value()).isEqualTo(elasticBlogDocument);
+        verify(rawValueTemplate, never()).send(any(ProducerRecord.class));
+    }
+}
@@ -0,0 +1,118 @@
+package com.scalefocus.blogservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource firstReplica;
+    @Mock
+    private DataSource secondReplica;
+
+    private final Map<DataSource, OptionalLong> replicaLags = new HashMap<>();
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", firstReplica);
+        replicas.put("replica-1", secondReplica);
+        replicaLags.put(firstReplica, OptionalLong.of(0));
+        replicaLags.put(secondReplica, OptionalLong.of(1));
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, replicaLags::get, 5);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testWritesGoToPrimary() {
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    public void testReadOnlyTransactions_roundRobinOverReplicas() {
+        routingDataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    public void testReadOnlyTransactions_pinnedToPrimary_skipReplicas() {
+        routingDataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(ReadWriteRoutingDataSource.readFromPrimary(routingDataSource::determineCurrentLookupKey))
+                .isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        assertThat(ReadWriteRoutingDataSource.readFromPrimary(() -> ReadWriteRoutingDataSource.readFromPrimary(
+                routingDataSource::determineCurrentLookupKey))).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    public void testLaggingOrFailingReplica_isSkipped() {
+        replicaLags.put(firstReplica, OptionalLong.of(30));
+        replicaLags.put(secondReplica, OptionalLong.empty());
+        routingDataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(List.of());
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    public void testReplicaCaughtUp_isRoutedToAgain() {
+        replicaLags.put(firstReplica, OptionalLong.of(30));
+        routingDataSource.checkReplicaLag();
+        assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(List.of("replica-1"));
+
+        replicaLags.put(firstReplica, OptionalLong.of(2));
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.getHealthyReplicas()).isEqualTo(List.of("replica-0", "replica-1"));
+    }
+
+    @Test
+    public void testClose_closesPrimaryAndReplicaPools() {
+        HikariDataSource primaryPool = mock(HikariDataSource.class);
+        HikariDataSource replicaPool = mock(HikariDataSource.class);
+        ReadWriteRoutingDataSource pooledRoutingDataSource = new ReadWriteRoutingDataSource(primaryPool,
+                Map.of("replica-0", replicaPool), replica -> OptionalLong.of(0), 5);
+        pooledRoutingDataSource.startLagChecks(60_000);
+
+        pooledRoutingDataSource.close();
+
+        verify(primaryPool).close();
+        verify(replicaPool).close();
+    }
+}
@@ -0,0 +1,116 @@
+package com.scalefocus.blogservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+/**
+ * Runs the router behind the real JPA stack, with one H2 database standing in for the primary and one
+ * for a replica. Each holds a different tag, so the name read shows which database served the query.
+ */
+public class ReadWriteRoutingJpaTest {
+
+    private AnnotationConfigApplicationContext context;
+    private TagReader tagReader;
+
+    @BeforeEach
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(RoutingJpaConfig.class, TagReader.class);
+        tagReader = context.getBean(TagReader.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void testReadOnlyTransaction_readsReplica() {
+        assertThat(tagReader.readOnlyTagNames()).isEqualTo(List.of("on replica"));
+    }
+
+    @Test
+    public void testReadOnlyTransaction_pinnedToPrimary_readsPrimary() {
+        assertThat(ReadWriteRoutingDataSource.readFromPrimary(tagReader::readOnlyTagNames)).isEqualTo(List.of("on primary"));
+    }
+
+    @Test
+    public void testReadWriteTransaction_readsPrimary() {
+        assertThat(tagReader.tagNames()).isEqualTo(List.of("on primary"));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class RoutingJpaConfig {
+
+        @Bean
+        public DataSource dataSource() {
+            ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(h2("on primary"),
+                    Map.of("replica-0", h2("on replica")), replica -> OptionalLong.of(0), 5);
+            routingDataSource.afterPropertiesSet();
+            routingDataSource.checkReplicaLag();
+            return new DataSourceConfig.RoutingDataSourceProxy(routingDataSource);
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+            entityManagerFactory.setDataSource(dataSource);
+            entityManagerFactory.setPackagesToScan("com.scalefocus.blogservice.entity");
+            entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            return entityManagerFactory;
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        private static HikariDataSource h2(String tagName) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            dataSource.setMaximumPoolSize(2);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE tag (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            jdbcTemplate.update("INSERT INTO tag (name) VALUES (?)", tagName);
+            return dataSource;
+        }
+    }
+
+    static class TagReader {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional(readOnly = true)
+        public List<String> readOnlyTagNames() {
+            return entityManager.createQuery("SELECT t.name FROM Tag t", String.class).getResultList();
+        }
+
+        @Transactional
+        public List<String> tagNames() {
+            return entityManager.createQuery("SELECT t.name FROM Tag t", String.class).getResultList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.scalefocus.blogservice.config;
+
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sends more failing calls than the pool has connections per route through the real pooled
+ * client, against a local server, to show that error responses give their connection back.
+ */
+public class RestClientConfigTest {
+
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 50;
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/users/missing", exchange -> respond(exchange, 404));
+        server.createContext("/api/users/failing", exchange -> respond(exchange, 500));
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+
+        RestClientConfig restClientConfig = new RestClientConfig();
+        ReflectionTestUtils.setField(restClientConfig, "maxConnections", 200);
+        ReflectionTestUtils.setField(restClientConfig, "maxConnectionsPerRoute", MAX_CONNECTIONS_PER_ROUTE);
+        ReflectionTestUtils.setField(restClientConfig, "connectTimeout", 1000L);
+        ReflectionTestUtils.setField(restClientConfig, "readTimeout", 3000L);
+        ReflectionTestUtils.setField(restClientConfig, "connectionRequestTimeout", 500L);
+        ReflectionTestUtils.setField(restClientConfig, "idleEviction", 30000L);
+        connectionManager = restClientConfig.httpClientConnectionManager();
+        httpClient = restClientConfig.httpClient(connectionManager);
+        restTemplate = restClientConfig.restTemplate(httpClient);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testNotFoundResponses_releasePooledConnections() {
+        for (int i = 0; i < MAX_CONNECTIONS_PER_ROUTE * 2; i++) {
+            assertThrows(ResourceNotFound.class, () -> restTemplate.getForObject(baseUrl + "/api/users/missing", String.class));
+        }
+
+        assertThat(connectionManager.getTotalStats().getLeased()).isEqualTo(0);
+    }
+
+    @Test
+    public void testServerErrorResponses_releasePooledConnections() {
+        for (int i = 0; i < MAX_CONNECTIONS_PER_ROUTE * 2; i++) {
+            assertThrows(UserServiceUnavailableException.class,
+                    () -> restTemplate.getForObject(baseUrl + "/api/users/failing", String.class));
+        }
+
+        assertThat(connectionManager.getTotalStats().getLeased()).isEqualTo(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "{\"message\":\"failed\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.scalefocus.blogservice.consumer;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.repository.ElasticBlogRepository;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class KafkaElasticBlogConsumerTest {
+
+    @Mock
+    private ElasticBlogRepository elasticBlogRepository;
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private KafkaElasticBlogConsumer kafkaElasticBlogConsumer;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        kafkaElasticBlogConsumer = new KafkaElasticBlogConsumer(elasticBlogRepository,
+                elasticsearchOperations, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testBatch_isIndexedWithOneBulkRequestKeepingLatestPerBlog() {
+        kafkaElasticBlogConsumer.consumeEvents(List.of(
+                upsert(0, 1L, "first"),
+                upsert(1, 2L, "other"),
+                upsert(2, 1L, "second")));
+
+        List<IndexQuery> queries = captureIndexed();
+        assertThat(queries.size()).isEqualTo(2);
+        assertThat(queries.get(0).getId()).isEqualTo("1");
+        assertThat(((ElasticBlogDocument) queries.get(0).getObject()).getTitle()).isEqualTo("second");
+        assertThat(((ElasticBlogDocument) queries.get(1).getObject()).getTitle()).isEqualTo("other");
+        verify(elasticBlogRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    public void testDeleteAfterUpsert_onlyDeletes() {
+        kafkaElasticBlogConsumer.consumeEvents(List.of(upsert(0, 1L, "title"), delete(1, 1L)));
+
+        verify(elasticBlogRepository).deleteAllById(Set.of(1L));
+        verify(elasticsearchOperations, never()).bulkIndex(anyList(), eq(ElasticBlogDocument.class));
+    }
+
+    @Test
+    public void testUndecodableRecord_appliesTheRestAndReportsItsIndex() {
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaElasticBlogConsumer.consumeEvents(List.of(upsert(0, 1L, "title"), undecodable(1, 2L))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+        assertThat(exception.getCause()).isInstanceOf(IllegalArgumentException.class);
+        List<IndexQuery> queries = captureIndexed();
+        assertThat(queries.size()).isEqualTo(1);
+        assertThat(queries.get(0).getId()).isEqualTo("1");
+    }
+
+    @Test
+    public void testFailedUpsert_deleteIsStillAppliedAndUpsertIndexReported() {
+        doThrow(new IllegalStateException("elasticsearch unavailable"))
+                .when(elasticsearchOperations).bulkIndex(anyList(), eq(ElasticBlogDocument.class));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaElasticBlogConsumer.consumeEvents(List.of(delete(0, 1L), upsert(1, 2L, "title"))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+        verify(elasticBlogRepository).deleteAllById(Set.of(1L));
+    }
+
+    @Test
+    public void testFailedUpsert_reportsFirstRecordOfTheBlogItSuperseded() {
+        doThrow(new IllegalStateException("elasticsearch unavailable"))
+                .when(elasticsearchOperations).bulkIndex(anyList(), eq(ElasticBlogDocument.class));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaElasticBlogConsumer.consumeEvents(List.of(
+                        delete(0, 3L),
+                        upsert(1, 1L, "first"),
+                        undecodable(2, 2L),
+                        upsert(3, 1L, "second"))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+        verify(elasticBlogRepository).deleteAllById(Set.of(3L));
+    }
+
+    @Test
+    public void testFailedBulkItem_isReportedByItsIndex() {
+        doThrow(new BulkFailureException("bulk failed",
+                Map.of("2", new BulkFailureException.FailureDetails(400, "mapping error"))))
+                .when(elasticsearchOperations).bulkIndex(anyList(), eq(ElasticBlogDocument.class));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaElasticBlogConsumer.consumeEvents(List.of(
+                        upsert(0, 1L, "title"),
+                        upsert(1, 2L, "other"),
+                        upsert(2, 3L, "third"))));
+
+        assertThat(exception.getIndex()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IndexQuery> captureIndexed() {
+        ArgumentCaptor<List<IndexQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, times(1)).bulkIndex(captor.capture(), eq(ElasticBlogDocument.class));
+        return captor.getValue();
+    }
+
+    private ConsumerRecord<Long, ElasticBlogDocument> upsert(long offset, Long blogId, String title) {
+        ElasticBlogDocument elasticBlogDocument = new ElasticBlogDocument();
+        elasticBlogDocument.setId(blogId);
+        elasticBlogDocument.setTitle(title);
+        ConsumerRecord<Long, ElasticBlogDocument> record = new ConsumerRecord<>("blog-topic", 0, offset, 1L, elasticBlogDocument);
+        BlogEventHeaders.add(record.headers(), blogId, BlogEventHeaders.UPSERT);
+        return record;
+    }
+
+    private ConsumerRecord<Long, ElasticBlogDocument> undecodable(long offset, Long blogId) {
+        ConsumerRecord<Long, ElasticBlogDocument> record = new ConsumerRecord<>("blog-topic", 0, offset, 1L, null);
+        BlogEventHeaders.add(record.headers(), blogId, BlogEventHeaders.UPSERT);
+        return record;
+    }
+
+    private ConsumerRecord<Long, ElasticBlogDocument> delete(long offset, Long blogId) {
+        ConsumerRecord<Long, ElasticBlogDocument> record = new ConsumerRecord<>("blog-topic", 0, offset, 1L, null);
+        BlogEventHeaders.add(record.headers(), blogId, BlogEventHeaders.DELETE);
+        return record;
+    }
+}
@@ -0,0 +1,183 @@
+package com.scalefocus.blogservice.consumer;
+
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.repository.ElasticBlogRepository;
+import com.scalefocus.blogservice.utils.BlogEventDeserializer;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import com.scalefocus.blogservice.utils.BlogEventSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Load harness for the blog index listener against an embedded broker and an elasticsearch stand-in
+ * that costs a fixed round trip per request plus a little per document. Prints events per second for each run.
+ */
+@EmbeddedKafka
+public class KafkaElasticBlogConsumerThroughputTest {
+
+    private static final Logger LOGGER = LogManager.getLogger(KafkaElasticBlogConsumerThroughputTest.class);
+    private static final int EVENTS = 2_000;
+    private static final int BLOGS = 1_000;
+    private static final long REQUEST_MICROS = 2_000;
+    private static final long DOCUMENT_MICROS = 100;
+
+    @Test
+    public void testBatchListener_outperformsPerRecordPath(EmbeddedKafkaBroker broker) throws Exception {
+        double perRecord = measurePerRecord(broker, "blog-index-per-record");
+        double batch = measureBatch(broker, "blog-index-batch", 1, 1);
+
+        LOGGER.info("Per-record path indexed {} events/s, batch listener indexed {} events/s",
+                Math.round(perRecord), Math.round(batch));
+        assertThat(batch).isGreaterThan(perRecord * 2);
+    }
+
+    @Test
+    public void testMorePartitionsAndThreads_raiseBatchThroughput(EmbeddedKafkaBroker broker) throws Exception {
+        double single = measureBatch(broker, "blog-index-1-partition", 1, 1);
+        double scaled = measureBatch(broker, "blog-index-3-partitions", 3, 3);
+
+        LOGGER.info("Batch listener indexed {} events/s with 1 partition and thread, {} events/s with 3",
+                Math.round(single), Math.round(scaled));
+        assertThat(scaled).isGreaterThan(single * 1.5);
+    }
+
+    /**
+     * The path before the batch listener: one repository save, so one index request, per record.
+     */
+    private double measurePerRecord(EmbeddedKafkaBroker broker, String topic) throws InterruptedException {
+        ElasticBlogRepository elasticBlogRepository = mock(ElasticBlogRepository.class);
+        doAnswer(invocation -> {
+            TimeUnit.MICROSECONDS.sleep(REQUEST_MICROS + DOCUMENT_MICROS);
+            return invocation.getArgument(0);
+        }).when(elasticBlogRepository).save(any(ElasticBlogDocument.class));
+
+        CountDownLatch processed = new CountDownLatch(EVENTS);
+        AtomicLong firstRecordNanos = new AtomicLong();
+        MessageListener<Long, ElasticBlogDocument> listener = record -> {
+            firstRecordNanos.compareAndSet(0, System.nanoTime());
+            elasticBlogRepository.save(record.value());
+            processed.countDown();
+        };
+        return run(broker, topic, 1, listener, 1, processed, firstRecordNanos);
+    }
+
+    private double measureBatch(EmbeddedKafkaBroker broker, String topic, int partitions, int concurrency)
+            throws InterruptedException {
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        doAnswer(invocation -> {
+            List<?> documents = invocation.getArgument(0);
+            TimeUnit.MICROSECONDS.sleep(REQUEST_MICROS + documents.size() * DOCUMENT_MICROS);
+            return null;
+        }).when(elasticsearchOperations).bulkIndex(anyList(), eq(ElasticBlogDocument.class));
+        KafkaElasticBlogConsumer kafkaElasticBlogConsumer = new KafkaElasticBlogConsumer(mock(ElasticBlogRepository.class),
+                elasticsearchOperations, new SimpleMeterRegistry());
+
+        CountDownLatch processed = new CountDownLatch(EVENTS);
+        AtomicLong firstRecordNanos = new AtomicLong();
+        BatchMessageListener<Long, ElasticBlogDocument> listener = records -> {
+            firstRecordNanos.compareAndSet(0, System.nanoTime());
+            kafkaElasticBlogConsumer.consumeEvents(records);
+            records.forEach(record -> processed.countDown());
+        };
+        return run(broker, topic, partitions, listener, concurrency, processed, firstRecordNanos);
+    }
+
+    private void publish(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BlogEventSerializer.class);
+        DefaultKafkaProducerFactory<Long, ElasticBlogDocument> producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        try {
+            KafkaTemplate<Long, ElasticBlogDocument> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+            for (int i = 0; i < EVENTS; i++) {
+                long blogId = i % BLOGS;
+                ElasticBlogDocument elasticBlogDocument = new ElasticBlogDocument();
+                elasticBlogDocument.setId(blogId);
+                elasticBlogDocument.setTitle("load title " + i);
+                elasticBlogDocument.setText("load text " + i);
+                elasticBlogDocument.setUserId(1L);
+                ProducerRecord<Long, ElasticBlogDocument> record = new ProducerRecord<>(topic, blogId, elasticBlogDocument);
+                BlogEventHeaders.add(record.headers(), blogId, BlogEventHeaders.UPSERT);
+                kafkaTemplate.send(record);
+            }
+            kafkaTemplate.flush();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    /**
+     * Publishes once every partition is assigned, so a late rebalance cannot leave one thread with all
+     * partitions, and while the consumers are paused, so the run measures draining a full backlog.
+     */
+    private double run(EmbeddedKafkaBroker broker, String topic, int partitions, Object listener, int concurrency,
+                       CountDownLatch processed, AtomicLong firstRecordNanos) throws InterruptedException {
+        broker.addTopics(new NewTopic(topic, partitions, (short) 1));
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps(topic + "-group", "false", broker);
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, LongDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BlogEventDeserializer.class);
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener(listener);
+        containerProperties.setPollTimeout(100);
+        ConcurrentMessageListenerContainer<Long, ElasticBlogDocument> container = new ConcurrentMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(consumerProps), containerProperties);
+        container.setConcurrency(concurrency);
+        container.start();
+        try {
+            ContainerTestUtils.waitForAssignment(container, partitions);
+            container.pause();
+            awaitPaused(container);
+            publish(broker, topic);
+            container.resume();
+            assertTrue(processed.await(2, TimeUnit.MINUTES), "Not every event was consumed from " + topic);
+            long elapsedNanos = System.nanoTime() - firstRecordNanos.get();
+            return EVENTS * 1_000_000_000.0 / elapsedNanos;
+        } finally {
+            container.stop();
+        }
+    }
+
+    private void awaitPaused(ConcurrentMessageListenerContainer<?, ?> container) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!container.isContainerPaused()) {
+            assertTrue(System.nanoTime() < deadline, "The listener container did not pause");
+            Thread.sleep(10);
+        }
+    }
+}
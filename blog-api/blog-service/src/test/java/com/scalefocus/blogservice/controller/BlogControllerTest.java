@@ -8,6 +8,7 @@ import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
+import com.scalefocus.blogservice.response.TaggedBlogResponse;
 import com.scalefocus.blogservice.response.UserBlogResponse;
 import com.scalefocus.blogservice.service.BlogService;
 import org.junit.jupiter.api.BeforeEach;
@@ -69,7 +70,7 @@ public class BlogControllerTest {
         simplifiedBlogResponse = new SimplifiedBlogResponse(blogDto.title(), blogDto.text());
         simplifiedBlogResponseList = List.of(simplifiedBlogResponse);
         responsePagination = new SimplifiedBlogResponsePagination(simplifiedBlogResponseList, 1, 1,
-                1, 1);
+                1, 1, null, false);
 
         UserBlogResponse userBlogResponse = podamFactory.manufacturePojo(UserBlogResponse.class);
 
@@ -159,9 +160,20 @@ public class BlogControllerTest {
 
     }
 
+    @Test
+    public void testGettingBlogsByTags() {
+        TaggedBlogResponse taggedBlogResponse = new TaggedBlogResponse(blogDtoList, 1, null);
+        doReturn(taggedBlogResponse).when(blogService).getBlogsByTags(Set.of("java"), Set.of(), null, 20);
+
+        ResponseEntity<TaggedBlogResponse> blogsByTags = blogController.getBlogsByTags(Set.of("java"), Set.of(), null, 20);
+
+        assertEquals(taggedBlogResponse, blogsByTags.getBody());
+        assertEquals(blogsByTags.getStatusCode(), HttpStatusCode.valueOf(200));
+    }
+
     @Test
     public void testGettingSimplifiedBlogs() {
-        ResponseEntity<SimplifiedBlogResponsePagination> simplifiedBlogs = blogController.getSimplifiedBlogs(1, 1);
+        ResponseEntity<SimplifiedBlogResponsePagination> simplifiedBlogs = blogController.getSimplifiedBlogs(1, 1, null, false);
 
         assertThat(simplifiedBlogs.getBody()).isNotNull();
         assertEquals(simplifiedBlogs.getStatusCode(), HttpStatusCode.valueOf(200));
@@ -0,0 +1,85 @@
+package com.scalefocus.blogservice.producer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class BlogOutboxRelayLockTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement getLock;
+    @Mock
+    private PreparedStatement releaseLock;
+    @Mock
+    private ResultSet getLockResult;
+    @Mock
+    private ResultSet releaseLockResult;
+    @Mock
+    private Runnable action;
+
+    @InjectMocks
+    private BlogOutboxRelayLock blogOutboxRelayLock;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        doReturn(connection).when(dataSource).getConnection();
+        doReturn(getLock).when(connection).prepareStatement("SELECT GET_LOCK(?, 0)");
+        doReturn(releaseLock).when(connection).prepareStatement("SELECT RELEASE_LOCK(?)");
+        doReturn(getLockResult).when(getLock).executeQuery();
+        doReturn(releaseLockResult).when(releaseLock).executeQuery();
+        doReturn(true).when(getLockResult).next();
+    }
+
+    @Test
+    public void testRunExclusively_runsAndReleasesWhenLockIsFree() throws SQLException {
+        doReturn(1).when(getLockResult).getInt(1);
+
+        assertTrue(blogOutboxRelayLock.runExclusively(action));
+
+        verify(getLock).setString(1, BlogOutboxRelayLock.LOCK_NAME);
+        verify(action).run();
+        verify(releaseLock).setString(1, BlogOutboxRelayLock.LOCK_NAME);
+        verify(releaseLock).executeQuery();
+        verify(connection).close();
+    }
+
+    @Test
+    public void testRunExclusively_skipsWhenAnotherInstanceHoldsTheLock() throws SQLException {
+        doReturn(0).when(getLockResult).getInt(1);
+
+        assertFalse(blogOutboxRelayLock.runExclusively(action));
+
+        verify(action, never()).run();
+        verify(connection, never()).prepareStatement("SELECT RELEASE_LOCK(?)");
+        verify(connection).close();
+    }
+
+    @Test
+    public void testRunExclusively_releasesWhenTheActionFails() throws SQLException {
+        doReturn(1).when(getLockResult).getInt(1);
+        doThrow(new IllegalStateException("broker down")).when(action).run();
+
+        assertThrows(IllegalStateException.class, () -> blogOutboxRelayLock.runExclusively(action));
+
+        verify(releaseLock).executeQuery();
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,178 @@
+package com.scalefocus.blogservice.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.entity.BlogOutboxEvent;
+import com.scalefocus.blogservice.repository.BlogOutboxRepository;
+import com.scalefocus.blogservice.utils.BlogEventHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class BlogOutboxRelayTest {
+
+    @Mock
+    private BlogOutboxRepository blogOutboxRepository;
+    @Mock
+    private BlogOutboxRelayLock blogOutboxRelayLock;
+    @Mock
+    private KafkaTemplate<Long, Object> kafkaTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BlogOutboxRelay blogOutboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        }).when(blogOutboxRelayLock).runExclusively(any());
+        blogOutboxRelay = new BlogOutboxRelay(blogOutboxRepository, blogOutboxRelayLock, kafkaTemplate, new ObjectMapper(),
+                transactionManager, meterRegistry, "blog-topic", 100, 1000, 1000, 1000, 60000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRelayBatch_sendsInOrderAndDeletesAcknowledgedEvents() {
+        doReturn(List.of(upsertEvent(1L, 10L), deleteEvent(2L, 11L))).when(blogOutboxRepository).lockNextBatch(anyInt());
+        doReturn(CompletableFuture.completedFuture(null)).when(kafkaTemplate).send(any(ProducerRecord.class));
+
+        int relayed = blogOutboxRelay.relayBatch();
+
+        ArgumentCaptor<ProducerRecord<Long, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(captor.capture());
+        List<ProducerRecord<Long, Object>> records = captor.getAllValues();
+        assertThat(relayed).isEqualTo(2);
+        assertThat(records.get(0).value()).isNotNull();
+        assertThat(records.get(0).key()).isEqualTo(10L);
+        assertThat(records.get(1).key()).isEqualTo(11L);
+        assertThat(new String(records.get(1).headers().lastHeader(BlogEventHeaders.EVENT_TYPE).value())).isEqualTo(BlogEventHeaders.DELETE);
+        assertThat(records.get(1).value()).isNull();
+        verify(blogOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedSend_keepsEventsInOutbox() {
+        doReturn(List.of(upsertEvent(1L, 10L))).when(blogOutboxRepository).lockNextBatch(anyInt());
+        doReturn(CompletableFuture.failedFuture(new RuntimeException("broker down"))).when(kafkaTemplate).send(any(ProducerRecord.class));
+
+        blogOutboxRelay.relayPending();
+
+        verify(blogOutboxRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(transactionManager).rollback(any());
+        verify(blogOutboxRepository).incrementAttempts(List.of(1L));
+        assertThat(meterRegistry.get("blog.outbox.retries").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWakeUpDuringBackoff_doesNotResend() {
+        doReturn(List.of(upsertEvent(1L, 10L))).when(blogOutboxRepository).lockNextBatch(anyInt());
+        doReturn(CompletableFuture.failedFuture(new RuntimeException("broker down"))).when(kafkaTemplate).send(any(ProducerRecord.class));
+
+        blogOutboxRelay.relayPending();
+        blogOutboxRelay.relayPending();
+
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRelayPending_skipsWhileAnotherInstanceHoldsTheLock() {
+        doReturn(false).when(blogOutboxRelayLock).runExclusively(any());
+        doReturn(3L).when(blogOutboxRepository).count();
+
+        blogOutboxRelay.relayPending();
+
+        verify(blogOutboxRepository, never()).lockNextBatch(anyInt());
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertThat(blogOutboxRelay.getDepth()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testWakeUps_whileOneIsQueuedAreCoalesced() throws InterruptedException {
+        CountDownLatch relaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            relaying.countDown();
+            release.await();
+            return List.of();
+        }).when(blogOutboxRepository).lockNextBatch(anyInt());
+
+        blogOutboxRelay.wakeUp();
+        assertTrue(relaying.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            blogOutboxRelay.wakeUp();
+        }
+        release.countDown();
+
+        verify(blogOutboxRepository, after(500).times(2)).lockNextBatch(anyInt());
+        blogOutboxRelay.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDepth_isRefreshedWhileBackingOff() {
+        doReturn(List.of(upsertEvent(1L, 10L))).when(blogOutboxRepository).lockNextBatch(anyInt());
+        doReturn(CompletableFuture.failedFuture(new RuntimeException("broker down"))).when(kafkaTemplate).send(any(ProducerRecord.class));
+        doReturn(1L, 250L).when(blogOutboxRepository).count();
+
+        blogOutboxRelay.relayPending();
+        assertThat(blogOutboxRelay.getDepth()).isEqualTo(1L);
+        blogOutboxRelay.relayPending();
+
+        assertThat(blogOutboxRelay.getDepth()).isEqualTo(250L);
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    public void testBackoff_growsExponentiallyUpToTheMaximum() {
+        assertThat(blogOutboxRelay.backoffMilliseconds(1)).isBetween(500L, 1000L);
+        assertThat(blogOutboxRelay.backoffMilliseconds(3)).isBetween(2000L, 4000L);
+        assertThat(blogOutboxRelay.backoffMilliseconds(30)).isBetween(30000L, 60000L);
+    }
+
+    @Test
+    public void testDepthGauge_followsOutboxSize() {
+        doReturn(List.of()).when(blogOutboxRepository).lockNextBatch(anyInt());
+        doReturn(42L).when(blogOutboxRepository).count();
+
+        blogOutboxRelay.relayPending();
+
+        assertThat(blogOutboxRelay.getDepth()).isEqualTo(42L);
+        assertThat(meterRegistry.get("blog.outbox.depth").gauge().value()).isEqualTo(42.0);
+    }
+
+    private BlogOutboxEvent upsertEvent(Long id, Long blogId) {
+        return new BlogOutboxEvent(id, blogId, 1L, BlogEventHeaders.UPSERT,
+                "{\"id\":" + blogId + ",\"title\":\"title\",\"userId\":1}", 0, Instant.now());
+    }
+
+    private BlogOutboxEvent deleteEvent(Long id, Long blogId) {
+        return new BlogOutboxEvent(id, blogId, 1L, BlogEventHeaders.DELETE, null, 0, Instant.now());
+    }
+}
@@ -2,37 +2,62 @@ package com.scalefocus.blogservice.service.impl;
 
 
 import com.scalefocus.blogservice.dto.BlogDto;
+import com.scalefocus.blogservice.dto.BlogSnapshot;
 import com.scalefocus.blogservice.dto.TagDto;
 import com.scalefocus.blogservice.dto.UserClientDto;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.entity.ElasticBlogDocument;
 import com.scalefocus.blogservice.entity.Tag;
+import com.scalefocus.blogservice.exception.BulkRequestTooLargeException;
+import com.scalefocus.blogservice.exception.InvalidTagFilterException;
 import com.scalefocus.blogservice.exception.ResourceNotFound;
 import com.scalefocus.blogservice.mapper.BlogMapper;
 import com.scalefocus.blogservice.producer.KafkaElasticBlogProducer;
 import com.scalefocus.blogservice.repository.BlogRepository;
 import com.scalefocus.blogservice.repository.ElasticBlogRepository;
+import com.scalefocus.blogservice.repository.SimplifiedBlogView;
 import com.scalefocus.blogservice.repository.TagRepository;
+import com.scalefocus.blogservice.request.BlogBulkRequest;
 import com.scalefocus.blogservice.request.BlogCreationRequest;
 import com.scalefocus.blogservice.request.BlogUpdateRequest;
 import com.scalefocus.blogservice.request.TagAddRequest;
+import com.scalefocus.blogservice.response.BlogResponse;
 import com.scalefocus.blogservice.response.SimplifiedBlogResponsePagination;
+import com.scalefocus.blogservice.response.TaggedBlogResponse;
 import com.scalefocus.blogservice.response.UserBlogResponse;
+import com.scalefocus.blogservice.utils.BlogCache;
+import com.scalefocus.blogservice.utils.BlogCursor;
+import com.scalefocus.blogservice.utils.TagDictionary;
+import com.scalefocus.blogservice.utils.TagIndex;
 import com.scalefocus.blogservice.utils.UserClientUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -65,6 +90,24 @@ public class BlogServiceImplTest {
     @Mock
     private KafkaElasticBlogProducer kafkaElasticBlogProducer;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BlogCache blogCache;
+
+    @Mock
+    private TagIndex tagIndex;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private BlogServiceImpl blogServiceImpl;
 
@@ -81,11 +124,12 @@ public class BlogServiceImplTest {
     private Long userId;
     private UserClientDto userClientDto;
     private Blog deletedBlog;
-    private Page<Blog> blogPage;
+    private Page<SimplifiedBlogView> blogPage;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(blogServiceImpl, "bulkMaxSize", 2);
 
         userId = 1L;
         userClientDto = new UserClientDto(1L, "test-client-user");
@@ -127,7 +171,7 @@ public class BlogServiceImplTest {
                 .name(tagAddRequest.tagName())
                 .build();
         blogDto.tagDtoSet().add(tagDto);
-        blogPage = new PageImpl<>(blogList, PageRequest.of(0, 10), blogList.size());
+        blogPage = new PageImpl<>(List.of(simplifiedBlogView(blog.getId())), PageRequest.of(0, 10), blogList.size());
 
 
         deletedBlog = new Blog(6L, "test title", "test,text", tags, userId);
@@ -138,6 +182,13 @@ public class BlogServiceImplTest {
         doReturn(userClientDto).when(userClientUtil).getAuthenticatedUser();
         doReturn(userClientDto).when(userClientUtil).findUser(anyLong());
         doNothing().when(kafkaElasticBlogProducer).createEvent(any(ElasticBlogDocument.class));
+        doReturn(Optional.of(new BlogSnapshot(blog.getId(), userId, blog.getTitle(), blog.getText()))).when(blogCache).getBlog(anyLong());
+        doAnswer(invocation -> {
+            String name = TagDictionary.normalize(invocation.getArgument(0));
+            return new TagDto(name.equals(tagAddRequest.tagName()) ? TAG_ID : 100L, name);
+        }).when(tagDictionary).getOrCreate(anyString());
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
     }
 
     @Test
@@ -150,17 +201,70 @@ public class BlogServiceImplTest {
 
         assertThat(savedBlog).isNotNull();
         assertThat(savedBlog.id()).isEqualTo(blog.getId());
+        verify(tagDictionary).getOrCreate(tagAddRequest.tagName());
+        verify(tagRepository, never()).save(any(Tag.class));
+
+    }
 
+    @Test
+    public void testBulkSavingBlogs_authenticatesOnceAndPublishesOneBatch() {
+        Blog updatedBlog = new Blog(2L, "old title", "old text", new HashSet<>(), userId);
+        doReturn(new Blog()).when(blogMapper).getBlog(any(BlogCreationRequest.class), any(UserClientDto.class));
+        doReturn(List.of(updatedBlog)).when(blogRepository).findByIdInOrderById(Set.of(2L));
+        doAnswer(invocation -> invocation.getArgument(0)).when(blogRepository).saveAll(anyList());
+
+        blogServiceImpl.bulkSaveBlogs(new BlogBulkRequest(List.of(blogCreationRequest), Map.of(2L, blogUpdateRequest)));
+
+        assertEquals(blogUpdateRequest.title(), updatedBlog.getTitle());
+        verify(userClientUtil, times(1)).getAuthenticatedUser();
+        verify(blogRepository, times(1)).saveAll(anyList());
+        verify(kafkaElasticBlogProducer, times(1)).createEvents(anyList());
+        verify(kafkaElasticBlogProducer, never()).createEvent(any(ElasticBlogDocument.class));
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    public void testBulkSavingBlogs_throwException_whenUpdatingBlogOfAnotherUser() {
+        doReturn(List.of(new Blog(2L, "title", "text", new HashSet<>(), 9L))).when(blogRepository).findByIdInOrderById(Set.of(2L));
+
+        assertThrows(ResourceNotFound.class, () -> blogServiceImpl.bulkSaveBlogs(new BlogBulkRequest(null, Map.of(2L, blogUpdateRequest))));
+        verify(blogRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testBulkSavingBlogs_throwException_whenTooManyBlogs() {
+        BlogBulkRequest blogBulkRequest = new BlogBulkRequest(List.of(blogCreationRequest, blogCreationRequest, blogCreationRequest), null);
+
+        assertThrows(BulkRequestTooLargeException.class, () -> blogServiceImpl.bulkSaveBlogs(blogBulkRequest));
+        verifyNoInteractions(userClientUtil);
     }
 
     @Test
     public void testGettingAllBlogs() {
-        doReturn(blogList).when(blogRepository).getBlogsByUserId(anyLong());
+        doReturn(List.of(new BlogResponse(blog.getTitle(), blog.getText()))).when(blogRepository).findBlogResponsesByUserId(anyLong());
 
         UserBlogResponse userBlogResponse = blogServiceImpl.getUserBlogs(userId);
 
         assertThat(userBlogResponse).isNotNull();
+        assertEquals(blog.getTitle(), userBlogResponse.getBlogs().get(0).getTitle());
+        verify(blogRepository, never()).findAll();
+
+    }
 
+    @Test
+    public void testExportingAllBlogs_writesOneLinePerBlog_andClearsInBatches() {
+        List<Blog> blogs = IntStream.range(0, 250)
+                .mapToObj(i -> new Blog((long) i, "title " + i, "text " + i, new HashSet<>(), userId))
+                .toList();
+        doReturn(blogs.stream()).when(blogRepository).streamAll();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        blogServiceImpl.exportAllBlogs(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(250, lines.length);
+        assertTrue(lines[0].startsWith("{"));
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
@@ -170,7 +274,7 @@ public class BlogServiceImplTest {
                 .text(blogUpdateRequest.text())
                 .build();
 
-        doReturn(Optional.ofNullable(blog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
         doReturn(blogDto).when(blogMapper).mapToBlogDto(any(Blog.class));
 
         BlogDto foundBlog = blogServiceImpl.updateBlog(BLOG_ID, blogUpdateRequest);
@@ -178,11 +282,63 @@ public class BlogServiceImplTest {
         assertThat(foundBlog).isNotNull();
         assertEquals(foundBlog.title(), blogUpdateRequest.title());
         assertEquals(foundBlog.text(), blogUpdateRequest.text());
+        verify(blogCache).evict(BLOG_ID);
+        verify(kafkaElasticBlogProducer).createEvent(any(ElasticBlogDocument.class));
+    }
+
+    @Test
+    public void testUpdatingBlog_evictsSnapshotReadBeforeCommit() {
+        BlogCache realBlogCache = new BlogCache(blogRepository, new SimpleMeterRegistry(), 100, 60);
+        ReflectionTestUtils.setField(blogServiceImpl, "blogCache", realBlogCache);
+        BlogSnapshot committed = new BlogSnapshot(BLOG_ID, userId, "test title", "test,text");
+        BlogSnapshot updated = new BlogSnapshot(BLOG_ID, userId, blogUpdateRequest.title(), blogUpdateRequest.text());
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
+        doReturn(Optional.of(committed)).when(blogRepository).findSnapshotById(BLOG_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            blogServiceImpl.updateBlog(BLOG_ID, blogUpdateRequest);
+            // another request reads before the commit and caches the row as it still is
+            assertThat(realBlogCache.getBlog(BLOG_ID)).isEqualTo(Optional.of(committed));
+
+            doReturn(Optional.of(updated)).when(blogRepository).findSnapshotById(BLOG_ID);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(realBlogCache.getBlog(BLOG_ID)).isEqualTo(Optional.of(updated));
+    }
+
+    @Test
+    public void testUpdatingBlog_updatesTagIndexOnlyAfterCommit() {
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            blogServiceImpl.updateBlog(BLOG_ID, blogUpdateRequest);
+            verify(tagIndex, never()).replace(anyLong(), anyCollection());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(tagIndex).replace(eq(BLOG_ID), anyCollection());
+    }
+
+    @Test
+    public void testUpdateBlog_throwException_whenCachedBlogNotFound() {
+        doReturn(Optional.empty()).when(blogCache).getBlog(anyLong());
+
+        ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogServiceImpl.updateBlog(BLOG_ID, blogUpdateRequest),
+                "Should throw exception when blog not found");
+
+        assertThat(assertThrows).hasMessage(BLOG_NOT_FOUND_ERROR_MESSAGE);
+        verify(blogRepository, never()).findWithTagsById(anyLong());
     }
 
     @Test
     public void testThrowException_whenBlogNotFound() {
-        doReturn(Optional.empty()).when(blogRepository).findById(anyLong());
+        doReturn(Optional.empty()).when(blogRepository).findWithTagsById(anyLong());
 
         ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogServiceImpl.updateBlog(BLOG_ID, blogUpdateRequest),
                 "Should throw exception when blog not found");
@@ -192,19 +348,31 @@ public class BlogServiceImplTest {
 
     @Test
     public void testAddingNewTag_returnBlogDto_whenBlogFound() {
-        doReturn(Optional.ofNullable(blog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
         BlogDto foundedBlogDto = blogServiceImpl.addTag(1L, tagAddRequest);
         TagDto foundedTagDto = foundedBlogDto.tagDtoSet().stream().filter(tagDto -> tagDto.name().equals("new tag")).findFirst().get();
 
         assertThat(foundedBlogDto).isNotNull();
         assertEquals(foundedTagDto.name(), tagAddRequest.tagName());
+        verify(tagRepository, never()).attachToBlog(anyLong(), anyLong());
+        verify(blogRepository, never()).save(any(Blog.class));
+    }
 
+    @Test
+    public void testAddingNewTag_attachesCanonicalTag_whenBlogDoesNotHaveIt() {
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
+
+        blogServiceImpl.addTag(BLOG_ID, new TagAddRequest("  Spring   Boot "));
+
+        verify(tagRepository).attachToBlog(BLOG_ID, 100L);
+        verify(tagRepository, never()).save(any(Tag.class));
+        assertTrue(blog.getTags().stream().anyMatch(t -> t.getName().equals("spring boot")));
     }
 
 
     @Test
     public void testAddingNewTag_ThrowException_whenBlogNotFound() {
-        doReturn(Optional.empty()).when(blogRepository).findById(anyLong());
+        doReturn(Optional.empty()).when(blogRepository).findWithTagsById(anyLong());
         ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogServiceImpl.addTag(BLOG_ID, tagAddRequest),
                 "Should throw exception when blog not found");
         assertThat(assertThrows).hasMessage(BLOG_NOT_FOUND_ERROR_MESSAGE);
@@ -214,7 +382,7 @@ public class BlogServiceImplTest {
     @Test
     public void testRemovingTag_returnBlogDto_whenBlogAndTagFound() {
         blogDto.tagDtoSet().remove(tagDto);
-        doReturn(Optional.ofNullable(blog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
 
         BlogDto foundedBlogDto = blogServiceImpl.removeTag(BLOG_ID, TAG_ID);
 
@@ -222,12 +390,13 @@ public class BlogServiceImplTest {
 
         assertThat(foundedBlogDto).isNotNull();
         assertFalse(notExistingTag);
-
+        verify(tagRepository).detachFromBlog(BLOG_ID, TAG_ID);
+        verify(tagRepository, never()).deleteById(anyLong());
     }
 
     @Test
     public void testRemovingTag_throwException_whenBlogNotFound() {
-        doReturn(Optional.empty()).when(blogRepository).findById(anyLong());
+        doReturn(Optional.empty()).when(blogRepository).findWithTagsById(anyLong());
         ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogServiceImpl.removeTag(BLOG_ID, TAG_ID),
                 "Should throw exception when blog not found");
         assertThat(assertThrows).hasMessage(BLOG_NOT_FOUND_ERROR_MESSAGE);
@@ -237,7 +406,7 @@ public class BlogServiceImplTest {
     @Test
     public void testRemovingTag_throwException_whenBlogDoesNotHaveSpecificTag() {
         blog.getTags().remove(tag);
-        doReturn(Optional.ofNullable(blog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.ofNullable(blog)).when(blogRepository).findWithTagsById(anyLong());
 
         ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogServiceImpl.removeTag(BLOG_ID, TAG_ID),
                 "Should throw exception when blog does not have specific tag");
@@ -256,9 +425,28 @@ public class BlogServiceImplTest {
         assertThat(blogsByTagName.size()).isGreaterThanOrEqualTo(1);
     }
 
+    @Test
+    public void testGettingBlogsByTags_loadsOnlyIndexedPage() {
+        doReturn(new TagIndex.TagIndexPage(List.of(1L), true, 5L)).when(tagIndex).find(Set.of("java"), Set.of(), 0L, 1);
+        doReturn(blogList).when(blogRepository).findByIdInOrderById(List.of(1L));
+
+        TaggedBlogResponse taggedBlogs = blogServiceImpl.getBlogsByTags(Set.of("java"), Set.of(), null, 1);
+
+        assertEquals(blogDtoList, taggedBlogs.getBlogs());
+        assertEquals(5L, taggedBlogs.getMatchedCount());
+        assertEquals(1L, BlogCursor.decode(taggedBlogs.getNextCursor()));
+        verify(blogRepository, never()).findByTagsName(anyString());
+    }
+
+    @Test
+    public void testGettingBlogsByTags_throwException_whenNoTagGiven() {
+        assertThrows(InvalidTagFilterException.class, () -> blogServiceImpl.getBlogsByTags(Set.of(), Set.of(), null, 10));
+        verifyNoInteractions(tagIndex);
+    }
+
     @Test
     public void testGettingSimplifiedBlogs() {
-        doReturn(blogPage).when(blogRepository).findAll(PageRequest.of(1, 1));
+        doReturn(blogPage).when(blogRepository).findSimplifiedBlogs(PageRequest.of(1, 1));
 
         SimplifiedBlogResponsePagination simplifiedBlogs = blogServiceImpl.getSimplifiedBlogs(1, 1);
 
@@ -268,13 +456,51 @@ public class BlogServiceImplTest {
 
     }
 
+    @Test
+    public void testGettingSimplifiedBlogs_withCursor_seeksPastLastId() {
+        List<SimplifiedBlogView> rows = List.of(simplifiedBlogView(11L), simplifiedBlogView(12L), simplifiedBlogView(13L));
+        doReturn(rows).when(blogRepository).findSimplifiedBlogsAfter(10L, Limit.of(3));
+
+        SimplifiedBlogResponsePagination simplifiedBlogs = blogServiceImpl.getSimplifiedBlogs(BlogCursor.encode(10L), 2, false);
+
+        assertThat(simplifiedBlogs.getSimplifiedBlogResponseList().size()).isEqualTo(2);
+        assertEquals(12L, BlogCursor.decode(simplifiedBlogs.getNextCursor()));
+        verify(blogRepository, never()).count();
+        verify(blogRepository, never()).findSimplifiedBlogs(any(PageRequest.class));
+    }
+
+    @Test
+    public void testGettingSimplifiedBlogs_withCursor_onLastPage() {
+        doReturn(List.of(simplifiedBlogView(11L))).when(blogRepository).findSimplifiedBlogsAfter(0L, Limit.of(3));
+        doReturn(50L).when(blogRepository).estimateBlogCount();
+
+        SimplifiedBlogResponsePagination simplifiedBlogs = blogServiceImpl.getSimplifiedBlogs(null, 2, true);
+
+        assertNull(simplifiedBlogs.getNextCursor());
+        assertEquals(50L, simplifiedBlogs.getTotalValue());
+        assertTrue(simplifiedBlogs.isTotalEstimated());
+    }
+
+    private static SimplifiedBlogView simplifiedBlogView(Long id) {
+        SimplifiedBlogView view = mock(SimplifiedBlogView.class);
+        doReturn(id).when(view).getId();
+        doReturn("title " + id).when(view).getTitle();
+        doReturn("text " + id).when(view).getText();
+        return view;
+    }
+
     @Test
     public void testDeletingBlog() {
 
-        doReturn(Optional.of(deletedBlog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.of(new BlogSnapshot(deletedBlog.getId(), userId, deletedBlog.getTitle(), deletedBlog.getText())))
+                .when(blogCache).getBlog(6L);
         blogServiceImpl.deleteUserBlog(6L, userId);
 
-        verify(blogRepository, times(1)).delete(any(Blog.class));
+        verify(blogRepository, times(1)).deleteById(6L);
+        verify(blogCache).evict(6L);
+        verify(tagIndex).removeBlog(6L);
+        verify(kafkaElasticBlogProducer).deleteEvent(6L, userId);
+        verify(blogRepository, never()).findById(anyLong());
 
     }
 
@@ -0,0 +1,54 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.dto.BlogSnapshot;
+import com.scalefocus.blogservice.repository.BlogRepository;
+import com.scalefocus.blogservice.utils.BlogCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+public class BlogCacheTest {
+
+    private static final Long BLOG_ID = 1L;
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    private BlogCache blogCache;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        blogCache = new BlogCache(blogRepository, new SimpleMeterRegistry(), 100, 60);
+    }
+
+    @Test
+    public void testGetBlog_loadsOnceUntilEvicted() {
+        BlogSnapshot snapshot = new BlogSnapshot(BLOG_ID, 2L, "title", "text");
+        doReturn(Optional.of(snapshot)).when(blogRepository).findSnapshotById(BLOG_ID);
+
+        assertThat(blogCache.getBlog(BLOG_ID)).isEqualTo(Optional.of(snapshot));
+        assertThat(blogCache.getBlog(BLOG_ID)).isEqualTo(Optional.of(snapshot));
+        verify(blogRepository, times(1)).findSnapshotById(BLOG_ID);
+
+        blogCache.evict(BLOG_ID);
+        blogCache.getBlog(BLOG_ID);
+        verify(blogRepository, times(2)).findSnapshotById(BLOG_ID);
+    }
+
+    @Test
+    public void testGetBlog_doesNotCacheMissingBlog() {
+        doReturn(Optional.empty()).when(blogRepository).findSnapshotById(BLOG_ID);
+
+        assertThat(blogCache.getBlog(BLOG_ID).isPresent()).isFalse();
+        assertThat(blogCache.getBlog(BLOG_ID).isPresent()).isFalse();
+        verify(blogRepository, times(2)).findSnapshotById(BLOG_ID);
+    }
+}
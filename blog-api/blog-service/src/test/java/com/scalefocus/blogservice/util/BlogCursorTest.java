@@ -0,0 +1,45 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.exception.InvalidCursorException;
+import com.scalefocus.blogservice.utils.BlogCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BlogCursorTest {
+
+    @Test
+    public void testDecode_returnsEncodedId() {
+        assertEquals(42L, BlogCursor.decode(BlogCursor.encode(42L)));
+    }
+
+    @Test
+    public void testDecode_startsAtTheBeginningWithoutCursor() {
+        assertEquals(0L, BlogCursor.decode(null));
+        assertEquals(0L, BlogCursor.decode(" "));
+    }
+
+    @Test
+    public void testDecode_rejectsMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> BlogCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> BlogCursor.decode(rawCursor("page:1")));
+    }
+
+    @Test
+    public void testDecode_rejectsNegativeId() {
+        assertThrows(InvalidCursorException.class, () -> BlogCursor.decode(BlogCursor.encode(-1L)));
+    }
+
+    @Test
+    public void testDecode_rejectsMaxId() {
+        assertThrows(InvalidCursorException.class, () -> BlogCursor.decode(BlogCursor.encode(Long.MAX_VALUE)));
+    }
+
+    private static String rawCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
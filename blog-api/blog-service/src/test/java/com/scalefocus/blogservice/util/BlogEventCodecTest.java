@@ -0,0 +1,64 @@
+package com.scalefocus.blogservice.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalefocus.blogservice.entity.ElasticBlogDocument;
+import com.scalefocus.blogservice.entity.ElasticTag;
+import com.scalefocus.blogservice.utils.BlogEventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BlogEventCodecTest {
+
+    @Test
+    public void testDocument_roundTripsAndIsSmallerThanJson() throws Exception {
+        ElasticBlogDocument document = new ElasticBlogDocument(42L, "title", "some blog text", 7L,
+                List.of(new ElasticTag(1L, "java"), new ElasticTag(2L, "kafka")));
+
+        byte[] value = BlogEventCodec.encode(document);
+
+        assertEquals(document, BlogEventCodec.decode(value));
+        assertThat(value.length).isLessThan(new ObjectMapper().writeValueAsBytes(document).length / 2);
+    }
+
+    @Test
+    public void testNullFields_areKept() {
+        ElasticBlogDocument document = new ElasticBlogDocument(1L, null, "", null, null);
+
+        ElasticBlogDocument decoded = BlogEventCodec.decode(BlogEventCodec.encode(document));
+
+        assertNull(decoded.getTitle());
+        assertEquals("", decoded.getText());
+        assertNull(decoded.getUserId());
+        assertNull(decoded.getTags());
+    }
+
+    @Test
+    public void testLongText_isCompressed() {
+        String text = "Long-form blog paragraph with some repetition. ".repeat(200);
+        ElasticBlogDocument document = new ElasticBlogDocument(1L, "title", text, 1L, List.of());
+
+        byte[] value = BlogEventCodec.encode(document);
+
+        assertThat(value.length).isLessThan(text.length() / 5);
+        assertEquals(document, BlogEventCodec.decode(value));
+    }
+
+    @Test
+    public void testLegacyJsonEvent_isStillRead() throws Exception {
+        ElasticBlogDocument document = new ElasticBlogDocument(3L, "title", "text", 1L, List.of(new ElasticTag(1L, "java")));
+
+        assertEquals(document, BlogEventCodec.decode(new ObjectMapper().writeValueAsBytes(document)));
+    }
+
+    @Test
+    public void testUnknownVersion_isRejected() {
+        assertThrows(SerializationException.class, () -> BlogEventCodec.decode(new byte[]{9, 0, 1}));
+    }
+}
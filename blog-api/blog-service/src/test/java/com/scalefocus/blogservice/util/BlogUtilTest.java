@@ -1,22 +1,37 @@
 package com.scalefocus.blogservice.util;
 
+import com.scalefocus.blogservice.config.ReadWriteRoutingDataSource;
+import com.scalefocus.blogservice.dto.BlogSnapshot;
 import com.scalefocus.blogservice.entity.Blog;
 import com.scalefocus.blogservice.exception.ResourceNotFound;
 import com.scalefocus.blogservice.repository.BlogRepository;
+import com.scalefocus.blogservice.utils.BlogCache;
 import com.scalefocus.blogservice.utils.BlogUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 
 public class BlogUtilTest {
@@ -24,6 +39,9 @@ public class BlogUtilTest {
     @Mock
     private BlogRepository blogRepository;
 
+    @Mock
+    private BlogCache blogCache;
+
     @InjectMocks
     private BlogUtil blogUtil;
 
@@ -38,7 +56,9 @@ public class BlogUtilTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         blog = new Blog(1L, "test title", "test text", new HashSet<>(), 1L);
-        doReturn(Optional.of(blog)).when(blogRepository).findById(anyLong());
+        doReturn(Optional.of(new BlogSnapshot(blog.getId(), blog.getUserId(), blog.getTitle(), blog.getText())))
+                .when(blogCache).getBlog(anyLong());
+        doReturn(blog).when(blogRepository).getReferenceById(anyLong());
     }
 
     @Test
@@ -49,16 +69,63 @@ public class BlogUtilTest {
         assertThat(foundedBlog.getTitle()).isEqualTo(blog.getTitle());
         assertThat(foundedBlog.getText()).isEqualTo(blog.getText());
         assertThat(foundedBlog.getUserId()).isEqualTo(blog.getUserId());
+        verify(blogRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testCheckUserHasSpecificBlog_ThrowsResourceNotFoundException_WhenBlogBelongsToAnotherUser() {
+        ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogUtil.checkUserHasSpecificBlog(1L, 2L),
+                "Should throw exception when blog belongs to another user");
 
+        assertThat(assertThrows).hasMessage("User does not have specific blog");
     }
 
     @Test
     public void testCheckUserHasSpecificBlog_ThrowsResourceNotFoundException_WhenBlogDoesNotExist() {
-        doReturn(Optional.empty()).when(blogRepository).findById(anyLong());
+        doReturn(Optional.empty()).when(blogCache).getBlog(anyLong());
         ResourceNotFound assertThrows = assertThrows(ResourceNotFound.class, () -> blogUtil.checkUserHasSpecificBlog(1L, 1L),
                 "Should throw exception when blog not found");
 
         assertThat(assertThrows).hasMessage(BLOG_NOT_FOUND_ERROR_MESSAGE);
 
     }
+
+    @Test
+    public void testCheckUserHasSpecificBlog_findsBlogCreatedJustBefore_whileReplicaLags() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        doReturn(primaryConnection).when(primary).getConnection();
+        doReturn(mock(Connection.class)).when(replica).getConnection();
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Map.of("replica-0", replica), dataSource -> OptionalLong.of(0), 5);
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.checkReplicaLag();
+        // the replica passes the lag check but has not applied the insert of the new blog yet
+        BlogSnapshot created = new BlogSnapshot(blog.getId(), blog.getUserId(), blog.getTitle(), blog.getText());
+        doAnswer(invocation -> inReadOnlyTransaction(() -> {
+            try (Connection connection = routingDataSource.getConnection()) {
+                return connection == primaryConnection ? Optional.of(created) : Optional.empty();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        })).when(blogRepository).findSnapshotById(BLOG_ID);
+        BlogUtil lagAwareBlogUtil = new BlogUtil(blogRepository, new BlogCache(blogRepository, new SimpleMeterRegistry(), 100, 60));
+
+        assertThat(lagAwareBlogUtil.checkUserHasSpecificBlog(BLOG_ID, blog.getUserId())).isEqualTo(blog);
+        verify(replica, never()).getConnection();
+        assertThat(blogRepository.findSnapshotById(BLOG_ID)).isEqualTo(Optional.empty());
+    }
+
+    /**
+     * Runs the lookup as Spring Data runs a repository query: in a read-only transaction.
+     */
+    private static <T> T inReadOnlyTransaction(Supplier<T> lookup) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return lookup.get();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
 }
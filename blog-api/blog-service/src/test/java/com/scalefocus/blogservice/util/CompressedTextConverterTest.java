@@ -0,0 +1,63 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.entity.Blog;
+import com.scalefocus.blogservice.utils.CompressedTextConverter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    public void testShortText_isStoredAsPlainUtf8() {
+        byte[] column = converter.convertToDatabaseColumn("short text");
+
+        assertArrayEquals("short text".getBytes(StandardCharsets.UTF_8), column);
+        assertEquals("short text", converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    public void testLongText_isCompressedAndRestored() {
+        String text = "Long-form blog paragraph with some repetition. ".repeat(200);
+
+        byte[] column = converter.convertToDatabaseColumn(text);
+
+        assertThat(column.length).isLessThan(text.length() / 5);
+        assertEquals(text, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    public void testLegacyPlainColumn_isReadAsIs() {
+        assertEquals("legacy text", converter.convertToEntityAttribute("legacy text".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testTextStartingWithNul_roundTrips() {
+        String text = "\u0000\u0001 starts with control characters";
+
+        assertEquals(text, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text)));
+    }
+
+    @Test
+    public void testNull_roundTrips() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    public void testBlogExcerpt_followsText() {
+        Blog blog = Blog.builder().title("title").text("x".repeat(Blog.EXCERPT_LENGTH + 50)).build();
+
+        assertEquals(Blog.EXCERPT_LENGTH, blog.getExcerpt().length());
+        blog.setText("short");
+        assertEquals("short", blog.getExcerpt());
+        assertEquals("short", blog.getText());
+    }
+}
@@ -0,0 +1,137 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.utils.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    public void testExecute_concurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "user";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> shared = singleFlight.executeAsync(1L, () -> {
+                throw new IllegalStateException("key is not in flight");
+            });
+            List<Future<String>> followers = IntStream.range(0, 7)
+                    .mapToObj(i -> executor.submit(() -> singleFlight.execute(1L, () -> {
+                        calls.incrementAndGet();
+                        return "other";
+                    })))
+                    .toList();
+            awaitDependents(shared, 7);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+            for (Future<String> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(singleFlight.inFlightCount()).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_errorIsSharedAndReleasesKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> shared = singleFlight.executeAsync(1L, () -> {
+                throw new IllegalStateException("key is not in flight");
+            });
+            release.countDown();
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause()).isInstanceOf(StackOverflowError.class);
+            assertThrows(StackOverflowError.class, () -> SingleFlight.join(shared));
+            assertThat(singleFlight.inFlightCount()).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_rethrowsFailureAndReleasesKey() {
+        assertThrows(ResourceNotFound.class, () -> singleFlight.execute(1L, () -> {
+            throw new ResourceNotFound("User not found");
+        }));
+
+        assertThat(singleFlight.execute(1L, () -> "user")).isEqualTo("user");
+    }
+
+    @Test
+    public void testExecuteAsync_sharesFutureUntilItCompletes() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> first = singleFlight.executeAsync(1L, () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = singleFlight.executeAsync(1L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        pending.complete("user");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join()).isEqualTo("user");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isEqualTo(0);
+    }
+
+    /**
+     * Waits until the given number of callers are blocked on the shared future.
+     */
+    private static void awaitDependents(CompletableFuture<?> future, int dependents) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (future.getNumberOfDependents() < dependents) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not join the shared call");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
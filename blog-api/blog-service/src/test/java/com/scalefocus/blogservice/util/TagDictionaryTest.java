@@ -0,0 +1,86 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.dto.TagDto;
+import com.scalefocus.blogservice.repository.TagRepository;
+import com.scalefocus.blogservice.repository.TagView;
+import com.scalefocus.blogservice.utils.TagDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TagDictionaryTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @InjectMocks
+    private TagDictionary tagDictionary;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(List.of(tagView(1L, "java"))).when(tagRepository).findAllTagViews();
+        tagDictionary.warmUp();
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("spring boot", TagDictionary.normalize("  Spring \t BOOT "));
+        assertEquals("spring boot", TagDictionary.normalize("\u3000Spring\u00A0\u2003Boot\u00A0"));
+    }
+
+    @Test
+    public void testGetOrCreate_returnsWarmedTagWithoutQuery() {
+        assertEquals(new TagDto(1L, "java"), tagDictionary.getOrCreate(" Java"));
+
+        verify(tagRepository, never()).insertIfAbsent(anyString());
+        verify(tagRepository, never()).findFirstByNameOrderByIdAsc(anyString());
+    }
+
+    @Test
+    public void testGetOrCreate_insertsUnknownNameOnce() {
+        doReturn(Optional.of(tagView(7L, "kafka"))).when(tagRepository).findFirstByNameOrderByIdAsc("kafka");
+
+        assertEquals(new TagDto(7L, "kafka"), tagDictionary.getOrCreate("Kafka"));
+        assertEquals(new TagDto(7L, "kafka"), tagDictionary.getOrCreate("kafka"));
+
+        verify(tagRepository, times(1)).insertIfAbsent("kafka");
+        verify(tagRepository, times(1)).findFirstByNameOrderByIdAsc("kafka");
+    }
+
+    @Test
+    public void testGetOrCreate_insideTransactionCachesAfterCommit() {
+        doReturn(Optional.of(tagView(8L, "redis"))).when(tagRepository).findFirstByNameOrderByIdAsc("redis");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(new TagDto(8L, "redis"), tagDictionary.getOrCreate("redis"));
+            assertEquals(new TagDto(8L, "redis"), tagDictionary.getOrCreate("redis"));
+            verify(tagRepository, times(2)).findFirstByNameOrderByIdAsc("redis");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(new TagDto(8L, "redis"), tagDictionary.getOrCreate("redis"));
+        verify(tagRepository, times(2)).findFirstByNameOrderByIdAsc("redis");
+    }
+
+    private TagView tagView(Long id, String name) {
+        TagView tagView = mock(TagView.class);
+        doReturn(id).when(tagView).getId();
+        doReturn(name).when(tagView).getName();
+        return tagView;
+    }
+}
@@ -0,0 +1,103 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.repository.BlogRepository;
+import com.scalefocus.blogservice.repository.BlogTagView;
+import com.scalefocus.blogservice.utils.TagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class TagIndexTest {
+
+    @Mock
+    private BlogRepository blogRepository;
+
+    @InjectMocks
+    private TagIndex tagIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(List.of(
+                blogTag(1L, "java"), blogTag(1L, "spring"),
+                blogTag(2L, "java"), blogTag(2L, "kafka"),
+                blogTag(3L, "java"), blogTag(3L, "spring"), blogTag(3L, "kafka"),
+                blogTag(4L, "rust")
+        )).when(blogRepository).findAllBlogTags();
+        tagIndex.rebuild();
+    }
+
+    @Test
+    public void testFind_intersectsAllTags() {
+        TagIndex.TagIndexPage page = tagIndex.find(Set.of("java", "spring"), Set.of(), 0L, 10);
+
+        assertEquals(List.of(1L, 3L), page.blogIds());
+        assertThat(page.matchedCount()).isEqualTo(2L);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testFind_unionsAnyTagsAndIntersectsWithAll() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), tagIndex.find(Set.of(), Set.of("spring", "kafka", "rust"), 0L, 10).blogIds());
+        assertEquals(List.of(2L, 3L), tagIndex.find(Set.of("java"), Set.of("kafka", "rust"), 0L, 10).blogIds());
+    }
+
+    @Test
+    public void testFind_unknownTagMatchesNothing() {
+        assertThat(tagIndex.find(Set.of("java", "unknown"), Set.of(), 0L, 10).matchedCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testFind_pagesById() {
+        TagIndex.TagIndexPage firstPage = tagIndex.find(Set.of("java"), Set.of(), 0L, 2);
+        TagIndex.TagIndexPage secondPage = tagIndex.find(Set.of("java"), Set.of(), 2L, 2);
+
+        assertEquals(List.of(1L, 2L), firstPage.blogIds());
+        assertThat(firstPage.hasNext()).isTrue();
+        assertEquals(List.of(3L), secondPage.blogIds());
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testWrites_updateIndex() {
+        tagIndex.add("rust", 1L);
+        tagIndex.remove("java", 2L);
+        tagIndex.replace(3L, List.of("rust"));
+        tagIndex.removeBlog(4L);
+
+        assertEquals(List.of(1L, 3L), tagIndex.find(Set.of("rust"), Set.of(), 0L, 10).blogIds());
+        assertEquals(List.of(1L), tagIndex.find(Set.of("java"), Set.of(), 0L, 10).blogIds());
+    }
+
+    @Test
+    public void testRebuild_keepsWritesMadeWhileReadingTheDatabase() {
+        doAnswer(invocation -> {
+            tagIndex.replace(1L, List.of("go"));
+            tagIndex.removeBlog(4L);
+            tagIndex.add("go", 5L);
+            return List.of(blogTag(1L, "java"), blogTag(4L, "rust"), blogTag(2L, "java"));
+        }).when(blogRepository).findAllBlogTags();
+
+        tagIndex.rebuild();
+
+        assertEquals(List.of(1L, 5L), tagIndex.find(Set.of("go"), Set.of(), 0L, 10).blogIds());
+        assertEquals(List.of(2L), tagIndex.find(Set.of("java"), Set.of(), 0L, 10).blogIds());
+        assertThat(tagIndex.find(Set.of("rust"), Set.of(), 0L, 10).matchedCount()).isEqualTo(0L);
+    }
+
+    private static BlogTagView blogTag(Long blogId, String tagName) {
+        BlogTagView view = mock(BlogTagView.class);
+        doReturn(blogId).when(view).getBlogId();
+        doReturn(tagName).when(view).getTagName();
+        return view;
+    }
+}
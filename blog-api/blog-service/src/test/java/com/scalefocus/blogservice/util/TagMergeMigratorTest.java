@@ -0,0 +1,94 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.utils.TagMergeMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class TagMergeMigratorTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement getLock;
+    @Mock
+    private PreparedStatement countTags;
+    @Mock
+    private PreparedStatement releaseLock;
+    @Mock
+    private ResultSet getLockResult;
+    @Mock
+    private ResultSet countTagsResult;
+    @Mock
+    private ResultSet releaseLockResult;
+    @Mock
+    private Statement scriptStatement;
+
+    @InjectMocks
+    private TagMergeMigrator tagMergeMigrator;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        doReturn(connection).when(dataSource).getConnection();
+        doReturn(getLock).when(connection).prepareStatement("SELECT GET_LOCK(?, ?)");
+        doReturn(countTags).when(connection).prepareStatement(startsWith("SELECT COUNT(*) FROM tag"));
+        doReturn(releaseLock).when(connection).prepareStatement("SELECT RELEASE_LOCK(?)");
+        doReturn(scriptStatement).when(connection).createStatement();
+        doReturn(getLockResult).when(getLock).executeQuery();
+        doReturn(countTagsResult).when(countTags).executeQuery();
+        doReturn(releaseLockResult).when(releaseLock).executeQuery();
+        doReturn(true).when(getLockResult).next();
+        doReturn(1).when(getLockResult).getInt(1);
+        doReturn(true).when(countTagsResult).next();
+    }
+
+    @Test
+    public void testMigrate_runsScriptUnderLockWhenTagsNeedMerging() throws SQLException {
+        doReturn(3L).when(countTagsResult).getLong(1);
+
+        tagMergeMigrator.migrate();
+
+        verify(scriptStatement, atLeastOnce()).execute(startsWith("CREATE TEMPORARY TABLE tag_merge"));
+        verify(scriptStatement).execute("DROP TEMPORARY TABLE tag_merge");
+        verify(releaseLock).executeQuery();
+        verify(connection).close();
+    }
+
+    @Test
+    public void testMigrate_skipsScriptWhenAnotherInstanceAlreadyMerged() throws SQLException {
+        doReturn(0L).when(countTagsResult).getLong(1);
+
+        tagMergeMigrator.migrate();
+
+        verify(connection, never()).createStatement();
+        verify(releaseLock).executeQuery();
+    }
+
+    @Test
+    public void testMigrate_failsWhenLockIsNotReleasedInTime() throws SQLException {
+        doReturn(0).when(getLockResult).getInt(1);
+
+        assertThrows(IllegalStateException.class, () -> tagMergeMigrator.migrate());
+
+        verify(countTags, never()).executeQuery();
+        verify(scriptStatement, never()).execute(anyString());
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.dto.UserClientDto;
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import com.scalefocus.blogservice.utils.UserBatchLoader;
+import com.scalefocus.blogservice.utils.UserServiceCallGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserBatchLoaderTest {
+
+    private static final String USER_BATCH = "http://user-service/api/users/batch";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private UserBatchLoader userBatchLoader;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userBatchLoader = new UserBatchLoader(restTemplate, new UserServiceCallGuard(50, 2000, 10000, 25), 50, 100, 4, 100, 500);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userBatchLoader.shutdown();
+    }
+
+    @Test
+    public void testLoad_coalescesLookupsIntoOneRequest() throws Exception {
+        doReturn(ResponseEntity.ok(List.of(new UserClientDto(1L, "first"), new UserClientDto(2L, "second"))))
+                .when(restTemplate).exchange(eq(USER_BATCH), eq(HttpMethod.POST), any(HttpEntity.class),
+                        any(ParameterizedTypeReference.class));
+
+        CompletableFuture<UserClientDto> first = userBatchLoader.load(1L);
+        CompletableFuture<UserClientDto> second = userBatchLoader.load(2L);
+        CompletableFuture<UserClientDto> firstAgain = userBatchLoader.load(1L);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("second");
+        assertThat(firstAgain).isSameAs(first);
+        verify(restTemplate, times(1)).exchange(eq(USER_BATCH), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testLoad_failsLookupForMissingUser() {
+        doReturn(ResponseEntity.ok(List.of()))
+                .when(restTemplate).exchange(eq(USER_BATCH), eq(HttpMethod.POST), any(HttpEntity.class),
+                        any(ParameterizedTypeReference.class));
+
+        CompletableFuture<UserClientDto> missing = userBatchLoader.load(3L);
+
+        CompletionException exception = assertThrows(CompletionException.class, missing::join);
+        assertThat(exception.getCause()).isInstanceOf(ResourceNotFound.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad_slowRequestDoesNotHoldUpTheNextBatch() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            HttpEntity<Map<String, Set<Long>>> request = invocation.getArgument(2);
+            Long userId = request.getBody().get("userIds").iterator().next();
+            assertThat(Thread.currentThread().getName()).isNotEqualTo("user-batch-loader");
+            if (userId == 1L) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            return ResponseEntity.ok(List.of(new UserClientDto(userId, "user" + userId)));
+        }).when(restTemplate).exchange(eq(USER_BATCH), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+
+        CompletableFuture<UserClientDto> first = userBatchLoader.load(1L);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UserClientDto> second = userBatchLoader.load(2L);
+
+        assertThat(second.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user2");
+        assertThat(first.isDone()).isFalse();
+        releaseFirst.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user1");
+    }
+
+    @Test
+    public void testConstructor_rejectsBatchLargerThanUserServiceLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new UserBatchLoader(restTemplate,
+                new UserServiceCallGuard(50, 2000, 10000, 25), 50, 501, 4, 100, 500));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLoad_failsBatchWhenDispatchQueueIsFull() throws Exception {
+        userBatchLoader.shutdown();
+        userBatchLoader = new UserBatchLoader(restTemplate, new UserServiceCallGuard(50, 2000, 10000, 25), 1, 2, 1, 1, 500);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            HttpEntity<Map<String, Set<Long>>> request = invocation.getArgument(2);
+            Set<Long> userIds = request.getBody().get("userIds");
+            if (userIds.contains(1L)) {
+                firstStarted.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            return ResponseEntity.ok(userIds.stream().map(userId -> new UserClientDto(userId, "user" + userId)).toList());
+        }).when(restTemplate).exchange(eq(USER_BATCH), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+
+        CompletableFuture<UserClientDto> first = userBatchLoader.load(1L);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // the window of user 2 queues behind the busy dispatcher, then user 3 fills the batch on this thread
+        CompletableFuture<UserClientDto> second = userBatchLoader.load(2L);
+        Thread.sleep(100);
+        CompletableFuture<UserClientDto> third = userBatchLoader.load(3L);
+        CompletableFuture<UserClientDto> rejected = userBatchLoader.load(4L);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertThat(exception.getCause()).isInstanceOf(UserServiceUnavailableException.class);
+        assertThat(second.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user2");
+        assertThat(third.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user3");
+        releaseFirst.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("user1");
+    }
+}
@@ -1,24 +1,62 @@
 package com.scalefocus.blogservice.util;
 
 import com.scalefocus.blogservice.dto.UserClientDto;
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserNotAuthenticatedException;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import com.scalefocus.blogservice.security.JwtTokenVerifier;
+import com.scalefocus.blogservice.security.TokenRevocationChecker;
+import com.scalefocus.blogservice.security.VerifiedIdentityCache;
+import com.scalefocus.blogservice.utils.UserBatchLoader;
 import com.scalefocus.blogservice.utils.UserClientUtil;
+import com.scalefocus.blogservice.utils.UserServiceCallGuard;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.mockito.Mockito.doReturn;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 public class UserClientUtilTest {
 
     public static final String USER_DETAILS = "http://user-service/api/users/getUserDetails";
+    public static final String JWT_TOKEN = "test.token.created";
 
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @Mock
+    private TokenRevocationChecker tokenRevocationChecker;
+
+    @Mock
+    private UserBatchLoader userBatchLoader;
+
+    @Mock
+    private UserServiceCallGuard userServiceCallGuard;
+
+    @Mock
+    private VerifiedIdentityCache verifiedIdentityCache;
+
+    @Mock
+    private Claims claims;
+
     @InjectMocks
     private UserClientUtil userClientUtil;
 
@@ -29,6 +67,13 @@ public class UserClientUtilTest {
         MockitoAnnotations.openMocks(this);
         userClientDto = new UserClientDto(1L, "test-client-user");
         doReturn(userClientDto).when(restTemplate).getForObject(USER_DETAILS, UserClientDto.class);
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get())
+                .when(userServiceCallGuard).call(any());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
     }
 
     @Test
@@ -41,4 +86,92 @@ public class UserClientUtilTest {
 
     }
 
+    @Test
+    public void testGettingAuthenticatedUser_fromTokenClaims_withoutCallingUserService() {
+        bindBearerToken();
+        doReturn(Optional.of(claims)).when(jwtTokenVerifier).verify(JWT_TOKEN);
+        doReturn(2L).when(claims).get(JwtTokenVerifier.USER_ID_CLAIM, Long.class);
+        doReturn("token-user").when(claims).getSubject();
+        doReturn(1).when(claims).get(JwtTokenVerifier.TOKEN_EPOCH_CLAIM, Integer.class);
+        doReturn(true).when(tokenRevocationChecker).isActive(2L, 1);
+
+        UserClientDto foundedUser = userClientUtil.getAuthenticatedUser();
+
+        assertThat(foundedUser.getId()).isEqualTo(2L);
+        assertThat(foundedUser.getUsername()).isEqualTo("token-user");
+        verify(restTemplate, never()).getForObject(any(String.class), any());
+    }
+
+    @Test
+    public void testGettingAuthenticatedUser_throwException_whenTokenIsInvalid() {
+        bindBearerToken();
+        doReturn(Optional.empty()).when(jwtTokenVerifier).verify(JWT_TOKEN);
+
+        assertThrows(UserNotAuthenticatedException.class, () -> userClientUtil.getAuthenticatedUser(),
+                "Should throw exception when token is not valid");
+    }
+
+    @Test
+    public void testGettingAuthenticatedUser_throwException_whenTokenIsRevoked() {
+        bindBearerToken();
+        doReturn(Optional.of(claims)).when(jwtTokenVerifier).verify(JWT_TOKEN);
+        doReturn(2L).when(claims).get(JwtTokenVerifier.USER_ID_CLAIM, Long.class);
+        doReturn(0).when(claims).get(JwtTokenVerifier.TOKEN_EPOCH_CLAIM, Integer.class);
+        doReturn(false).when(tokenRevocationChecker).isActive(2L, 0);
+
+        assertThrows(UserNotAuthenticatedException.class, () -> userClientUtil.getAuthenticatedUser(),
+                "Should throw exception when token is revoked");
+    }
+
+    private void bindBearerToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + JWT_TOKEN);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+
+    @Test
+    public void testFindUser_resolvesThroughBatchLoader() {
+        doReturn(CompletableFuture.completedFuture(userClientDto)).when(userBatchLoader).load(1L);
+
+        UserClientDto foundedUser = userClientUtil.findUser(1L);
+
+        assertThat(foundedUser).isEqualTo(userClientDto);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    public void testFindUser_throwException_whenUserIsMissing() {
+        doReturn(CompletableFuture.failedFuture(new ResourceNotFound("User does not exist with id: 1")))
+                .when(userBatchLoader).load(1L);
+
+        assertThrows(ResourceNotFound.class, () -> userClientUtil.findUser(1L));
+    }
+
+    @Test
+    public void testGettingAuthenticatedUser_fallsBackToVerifiedIdentity_whenUserServiceIsUnavailable() {
+        bindBearerToken();
+        doReturn(Optional.of(claims)).when(jwtTokenVerifier).verify(JWT_TOKEN);
+        doReturn(2L).when(claims).get(JwtTokenVerifier.USER_ID_CLAIM, Long.class);
+        doReturn(0).when(claims).get(JwtTokenVerifier.TOKEN_EPOCH_CLAIM, Integer.class);
+        doThrow(new UserServiceUnavailableException("User service is unavailable"))
+                .when(tokenRevocationChecker).isActive(2L, 0);
+        doReturn(Optional.of(userClientDto)).when(verifiedIdentityCache).get(JWT_TOKEN);
+
+        UserClientDto foundedUser = userClientUtil.getAuthenticatedUser();
+
+        assertThat(foundedUser).isEqualTo(userClientDto);
+    }
+
+    @Test
+    public void testGettingAuthenticatedUser_throwException_whenUserServiceIsUnavailableWithoutFallback() {
+        bindBearerToken();
+        doReturn(Optional.of(claims)).when(jwtTokenVerifier).verify(JWT_TOKEN);
+        doReturn(2L).when(claims).get(JwtTokenVerifier.USER_ID_CLAIM, Long.class);
+        doThrow(new UserServiceUnavailableException("User service is unavailable"))
+                .when(tokenRevocationChecker).isActive(anyLong(), anyInt());
+        doReturn(Optional.empty()).when(verifiedIdentityCache).get(JWT_TOKEN);
+
+        assertThrows(UserServiceUnavailableException.class, () -> userClientUtil.getAuthenticatedUser());
+    }
 }
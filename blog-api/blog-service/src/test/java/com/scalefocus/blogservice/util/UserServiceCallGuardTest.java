@@ -0,0 +1,51 @@
+package com.scalefocus.blogservice.util;
+
+import com.scalefocus.blogservice.exception.ResourceNotFound;
+import com.scalefocus.blogservice.exception.UserServiceUnavailableException;
+import com.scalefocus.blogservice.utils.UserServiceCallGuard;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserServiceCallGuardTest {
+
+    private UserServiceCallGuard userServiceCallGuard;
+
+    @BeforeEach
+    public void setUp() {
+        userServiceCallGuard = new UserServiceCallGuard(50, 2000, 60000, 2);
+    }
+
+    @Test
+    public void testCall_opensBreakerAfterFailures_andRejectsWithoutCalling() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            assertThrows(UserServiceUnavailableException.class, () -> userServiceCallGuard.call(() -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+        assertThat(userServiceCallGuard.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThrows(UserServiceUnavailableException.class, () -> userServiceCallGuard.call(calls::incrementAndGet));
+        assertThat(calls.get()).isEqualTo(10);
+    }
+
+    @Test
+    public void testCall_doesNotCountMissingUsersAsFailures() {
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ResourceNotFound.class, () -> userServiceCallGuard.call(() -> {
+                throw new ResourceNotFound("User not found");
+            }));
+        }
+
+        assertThat(userServiceCallGuard.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(userServiceCallGuard.call(() -> "user")).isEqualTo("user");
+    }
+}
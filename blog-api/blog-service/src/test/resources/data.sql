@@ -1,7 +1,12 @@
-INSERT INTO blog(id, title, text, user_id)
-VALUES  (2, 'Test Title2','Test Text2', 1),
-        (3, 'Test Title3','Test Title3', 1),
-        (4, 'Test Title4','Test Title4', 1);
+INSERT INTO blog_content(id, text)
+VALUES  (2, 'Test Text2'),
+        (3, 'Test Title3'),
+        (4, 'Test Title4');
+
+INSERT INTO blog(id, title, excerpt, content_id, user_id)
+VALUES  (2, 'Test Title2','Test Text2', 2, 1),
+        (3, 'Test Title3','Test Title3', 3, 1),
+        (4, 'Test Title4','Test Title4', 4, 1);
 
 INSERT INTO tag(id,name)
 VALUES (2,'Test Tag2'),
@@ -14,3 +19,8 @@ VALUES (2,2),
        (3,3),
        (3,4);
 
+UPDATE blog_seq
+SET next_val = (SELECT COALESCE(MAX(id), 0) + 50 FROM blog);
+
+UPDATE blog_content_seq
+SET next_val = (SELECT COALESCE(MAX(id), 0) + 50 FROM blog_content);
@@ -3,6 +3,7 @@ package com.scalefocus.userservice.config;
 import com.scalefocus.userservice.security.JwtAuthenticationEntryPoint;
 import com.scalefocus.userservice.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,8 +32,8 @@ public class SecurityConfig {
     private final LogoutHandler logoutHandler;
 
     @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(@Value("${app.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
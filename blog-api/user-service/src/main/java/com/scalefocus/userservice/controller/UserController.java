@@ -4,6 +4,7 @@ package com.scalefocus.userservice.controller;
 import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.request.AuthenticationRequest;
 import com.scalefocus.userservice.request.RegisterRequest;
+import com.scalefocus.userservice.request.UserBatchRequest;
 import com.scalefocus.userservice.response.TokenResponse;
 import com.scalefocus.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +17,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Tag(
         name = "CRUD REST APIs for User Resource",
         description = "CRUD REST APIs - Create User, Login User"
@@ -67,4 +70,30 @@ public class UserController {
     public ResponseEntity<UserDto> getUser(@PathVariable Long userId) {
         return new ResponseEntity<>(userService.findById(userId), HttpStatus.OK);
     }
+
+    @Operation(
+            summary = "Get Users In Batch REST API",
+            description = "Get Users In Batch REST API is used to resolve many user ids with a single query"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status 200 SUCCESS"
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserDto>> getUsers(@RequestBody UserBatchRequest userBatchRequest) {
+        return new ResponseEntity<>(userService.findAllByIds(userBatchRequest), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get User Token Epoch REST API",
+            description = "Get User Token Epoch REST API is used by other services to check if a token is revoked"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status 200 SUCCESS"
+    )
+    @GetMapping("/{userId}/tokenEpoch")
+    public ResponseEntity<Integer> getTokenEpoch(@PathVariable Long userId) {
+        return new ResponseEntity<>(userService.getTokenEpoch(userId), HttpStatus.OK);
+    }
 }
\ No newline at end of file
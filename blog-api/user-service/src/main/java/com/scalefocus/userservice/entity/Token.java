@@ -4,11 +4,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.Date;
+
 @Schema(
         description = "Token Model Information"
 )
 @Entity
-@Table(name = "TOKEN")
+@Table(name = "TOKEN",
+        indexes = {
+                @Index(name = "idx_token_user_expired", columnList = "user_id, is_expired"),
+                @Index(name = "idx_token_expires_at", columnList = "expires_at")
+        })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -23,18 +29,25 @@ public class Token {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     @Schema(
-            description = "Token Value"
+            description = "SHA-256 Hash Of The Token Value"
     )
-    private String token;
+    @Column(name = "token_hash", length = 64, unique = true)
+    private String tokenHash;
     @Schema(
             description = "Token Expiration Time"
     )
     private boolean isExpired;
 
+    @Schema(
+            description = "Token Expiration Date"
+    )
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
     @Schema(
             description = "User Token Information"
     )
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
-}
\ No newline at end of file
+}
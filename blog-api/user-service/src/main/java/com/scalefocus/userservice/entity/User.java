@@ -43,6 +43,12 @@ public class User {
     )
     private String displayName;
 
+    @Schema(
+            description = "User Token Epoch, tokens signed with a lower epoch are revoked"
+    )
+    @Column(nullable = false)
+    private int tokenEpoch;
+
     @Schema(
             description = "User Token List"
     )
@@ -40,6 +40,24 @@ public class GlobalExceptionHandler {
                 , webRequest.getDescription(false)), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ErrorDetails> batchTooLargeException(BatchTooLargeException batchTooLargeException,
+                                                               WebRequest webRequest) {
+        return new ResponseEntity<>(new ErrorDetails(getTime()
+                , "BAD_REQUEST"
+                , batchTooLargeException.getMessage()
+                , webRequest.getDescription(false)), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorDetails> serviceUnavailableException(ServiceUnavailableException serviceUnavailableException,
+                                                                    WebRequest webRequest) {
+        return new ResponseEntity<>(new ErrorDetails(getTime()
+                , "SERVICE_UNAVAILABLE"
+                , serviceUnavailableException.getMessage()
+                , webRequest.getDescription(false)), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorDetails> generalRuntimeException(RuntimeException runtimeException, WebRequest webRequest) {
         return new ResponseEntity<>(new ErrorDetails(getTime(),
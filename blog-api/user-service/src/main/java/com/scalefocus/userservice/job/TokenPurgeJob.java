@@ -0,0 +1,44 @@
+package com.scalefocus.userservice.job;
+
+import com.scalefocus.userservice.repository.TokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Deletes expired and past-expiration tokens in bounded batches,
+ * so the token table does not grow with the age of the accounts.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenPurgeJob {
+
+    private static final Logger logger = LogManager.getLogger(TokenPurgeJob.class);
+
+    @Value("${app.token-purge-batch-size:1000}")
+    private int batchSize;
+
+    private final TokenRepository tokenRepository;
+
+    @Scheduled(initialDelayString = "${app.token-purge-interval-milliseconds:3600000}",
+            fixedDelayString = "${app.token-purge-interval-milliseconds:3600000}")
+    public void purgeTokens() {
+        Date now = new Date();
+        int purgedCount = 0;
+        List<Long> tokenIds;
+        do {
+            tokenIds = tokenRepository.findPurgeableTokenIds(now, PageRequest.of(0, batchSize));
+            if (!tokenIds.isEmpty()) {
+                purgedCount += tokenRepository.deleteAllByIdIn(tokenIds);
+            }
+        } while (tokenIds.size() == batchSize);
+        logger.info("Purged {} expired tokens", purgedCount);
+    }
+}
@@ -2,16 +2,30 @@ package com.scalefocus.userservice.repository;
 
 
 import com.scalefocus.userservice.entity.Token;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
-    @Query("SELECT t FROM Token t inner join User u on t.user.id=u.id where u.id= :userId and t.isExpired=false")
-    List<Token> findAllNonExpiredTokens(Long userId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Token t SET t.isExpired = true WHERE t.user.id = :userId AND t.isExpired = false")
+    int expireAllUserTokens(Long userId);
 
-    Optional<Token> findByToken(String token);
-}
\ No newline at end of file
+    Optional<Token> findByTokenHash(String tokenHash);
+
+    @Query("SELECT t.id FROM Token t WHERE t.isExpired = true OR t.expiresAt < :now ORDER BY t.id")
+    List<Long> findPurgeableTokenIds(Date now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.id IN :ids")
+    int deleteAllByIdIn(List<Long> ids);
+}
@@ -2,7 +2,11 @@ package com.scalefocus.userservice.repository;
 
 import com.scalefocus.userservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -10,4 +14,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Boolean existsByUsername(String username);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :userId")
+    int incrementTokenEpoch(Long userId);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :userId")
+    int findTokenEpochById(Long userId);
+
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch FROM User u WHERE u.tokenEpoch > 0")
+    List<UserTokenEpoch> findAllTokenEpochs();
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.scalefocus.userservice.repository;
+
+public interface UserTokenEpoch {
+
+    Long getId();
+
+    int getTokenEpoch();
+}
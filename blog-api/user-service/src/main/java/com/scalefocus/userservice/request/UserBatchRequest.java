@@ -0,0 +1,21 @@
+package com.scalefocus.userservice.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Schema(
+        description = "User Batch Request Information"
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchRequest {
+    @Schema(
+            description = "Ids of the users to look up"
+    )
+    private Set<Long> userIds;
+}
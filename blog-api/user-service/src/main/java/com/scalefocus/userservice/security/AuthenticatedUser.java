@@ -0,0 +1,15 @@
+package com.scalefocus.userservice.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal built from the signed claims of a token, so the requesting user
+ * is known without loading the user record.
+ */
+public record AuthenticatedUser(Long id, String username) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
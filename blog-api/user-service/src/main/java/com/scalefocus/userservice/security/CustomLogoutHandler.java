@@ -1,8 +1,8 @@
 package com.scalefocus.userservice.security;
 
 
-import com.scalefocus.userservice.entity.Token;
 import com.scalefocus.userservice.repository.TokenRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +11,9 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Objects;
 
 @Component
 @RequiredArgsConstructor
@@ -19,19 +22,27 @@ public class CustomLogoutHandler implements LogoutHandler {
     private static final Logger logger = LogManager.getLogger(CustomLogoutHandler.class);
 
     private final TokenRepository tokenRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenEpochCache tokenEpochCache;
 
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
         logger.info("Logging out");
         String authHeader = request.getHeader("Authorization");
+        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+            return;
+        }
         String jwt = authHeader.substring(7);
 
-        Token token = tokenRepository.findByToken(jwt).orElse(null);
+        tokenProvider.parseToken(jwt)
+                .map(claims -> claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class))
+                .filter(Objects::nonNull)
+                .ifPresent(tokenEpochCache::bump);
 
-        if (token != null) {
+        tokenRepository.findByTokenHash(TokenHasher.hash(jwt)).ifPresent(token -> {
             token.setExpired(true);
-        }
-        tokenRepository.save(token);
+            tokenRepository.save(token);
+        });
         logger.info("Logged out successfully");
     }
-}
\ No newline at end of file
+}
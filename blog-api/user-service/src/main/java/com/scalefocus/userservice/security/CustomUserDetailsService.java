@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
@@ -15,7 +16,7 @@ import java.util.HashSet;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LogManager.getLogger(CustomUserDetailsService.class);
 
@@ -36,4 +37,20 @@ public class CustomUserDetailsService implements UserDetailsService {
                 new HashSet<>()
         );
     }
+
+    /**
+     * Called after a successful login when the stored hash was made with a lower BCrypt strength
+     * than the configured one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByUsername(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            logger.info("Password hash of user id '{}' upgraded", user.getId());
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.scalefocus.userservice.security;
 
 import com.scalefocus.userservice.repository.TokenRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +19,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -28,21 +31,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
     private final TokenRepository tokenRepository;
+    private final TokenEpochCache tokenEpochCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        logger.info("Getting token from request header");
         String token = getJwtTokenFromHeader(request);
 
-        logger.info("Checking if token is valid and not expired");
-        Boolean istokenExpired = tokenRepository.findByToken(token).map(t -> !t.isExpired()).orElse(false);
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token) && istokenExpired) {
-            String username = tokenProvider.getUsernameFromToken(token);
-            if (StringUtils.hasText(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
+        if (StringUtils.hasText(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<Claims> claims = tokenProvider.parseToken(token);
+            boolean isTokenActive = claims.map(c -> isTokenActive(c, token)).orElse(false);
+            String username = claims.map(Claims::getSubject).orElse(null);
+            if (isTokenActive && StringUtils.hasText(username)) {
+                UsernamePasswordAuthenticationToken authentication = createAuthentication(claims.get(), username);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -50,6 +50,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken createAuthentication(Claims claims, String username) {
+        Long userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+        if (userId != null) {
+            return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(userId, username), null, List.of());
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private boolean isTokenActive(Claims claims, String token) {
+        Long userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            logger.info("Token has no user id claim, checking it against the token table");
+            return tokenRepository.findByTokenHash(TokenHasher.hash(token)).map(t -> !t.isExpired()).orElse(false);
+        }
+        Integer tokenEpoch = claims.get(JwtTokenProvider.TOKEN_EPOCH_CLAIM, Integer.class);
+        return tokenEpochCache.isActive(userId, tokenEpoch == null ? 0 : tokenEpoch);
+    }
+
     private String getJwtTokenFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
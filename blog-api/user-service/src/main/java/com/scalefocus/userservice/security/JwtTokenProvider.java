@@ -1,13 +1,13 @@
 package com.scalefocus.userservice.security;
 
 import com.scalefocus.userservice.entity.User;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.logging.log4j.LogManager;
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @ConfigurationProperties(prefix = "app")
@@ -24,12 +25,31 @@ import java.util.Date;
 @Setter
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String TOKEN_EPOCH_CLAIM = "epoch";
+
     private static final Logger logger = LogManager.getLogger(JwtTokenProvider.class);
 
     private String jwtSecretKey;
 
     private long jwtExpirationMilliseconds;
 
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * The signing key and the parser are immutable and thread-safe,
+     * so they are built once instead of on every token operation.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretKey));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(User user) {
         logger.info("Generating token for user with id '{}'", user.getId());
         String username = user.getUsername();
@@ -38,50 +58,35 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TOKEN_EPOCH_CLAIM, user.getTokenEpoch())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        logger.info("Getting username from token");
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public boolean validateToken(String token) {
-        logger.info("Validating token");
+    /**
+     * Parses the token a single time. Signature and expiration are both checked by the parser,
+     * so the returned claims can be reused for everything else the request needs.
+     *
+     * @param token the raw JWT without the "Bearer " prefix
+     * @return the verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> parseToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parse(token);
-            return !isTokenExpired(token);
-        } catch (SignatureException | MalformedJwtException | ExpiredJwtException
-                 | UnsupportedJwtException | IllegalArgumentException e) {
-            logger.error("Invalid JWT", e);
-            return false;
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Invalid JWT: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
-    public boolean isTokenExpired(String token) {
-        logger.info("Checking if token is expired");
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token).getBody().getExpiration();
-
-        return expiration.before(new Date());
+    public String getUsernameFromToken(String token) {
+        return parseToken(token).map(Claims::getSubject).orElse(null);
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecretKey)
-        );
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
-}
\ No newline at end of file
+}
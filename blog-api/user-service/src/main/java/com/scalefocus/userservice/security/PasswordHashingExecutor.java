@@ -0,0 +1,91 @@
+package com.scalefocus.userservice.security;
+
+import com.scalefocus.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on a bounded pool so a burst of logins cannot occupy every request thread.
+ * Work is rejected straight away once the queue is full.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LogManager.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final long timeoutMilliseconds;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.password-hashing-threads:0}") int threads,
+                                   @Value("${app.password-hashing-queue-capacity:100}") int queueCapacity,
+                                   @Value("${app.password-hashing-timeout-milliseconds:5000}") long timeoutMilliseconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMilliseconds = timeoutMilliseconds;
+        this.hashTimer = Timer.builder("password.hashing.time")
+                .description("Time spent hashing or verifying passwords")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.record(task));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hashing queue is full, rejecting request");
+            throw new ServiceUnavailableException("Too many authentication requests, try again later");
+        }
+
+        try {
+            return future.get(timeoutMilliseconds, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Password hashing did not finish within {} ms", timeoutMilliseconds);
+            throw new ServiceUnavailableException("Authentication timed out, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Authentication was interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package com.scalefocus.userservice.security;
+
+import com.scalefocus.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every user's token epoch. A token is revoked once the user's epoch
+ * has moved past the epoch signed into it, so authenticating a request needs no query.
+ * Bumps made by this instance apply immediately; bumps made by other instances
+ * are picked up on the next periodic refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenEpochCache {
+
+    private static final Logger logger = LogManager.getLogger(TokenEpochCache.class);
+
+    private final UserRepository userRepository;
+    private final Map<Long, Integer> tokenEpochs = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${app.token-epoch-refresh-milliseconds:30000}")
+    public void refresh() {
+        userRepository.findAllTokenEpochs()
+                .forEach(userTokenEpoch -> tokenEpochs.merge(userTokenEpoch.getId(), userTokenEpoch.getTokenEpoch(), Math::max));
+        logger.debug("Token epochs refreshed for {} users", tokenEpochs.size());
+    }
+
+    public int getTokenEpoch(Long userId) {
+        return tokenEpochs.getOrDefault(userId, 0);
+    }
+
+    public boolean isActive(Long userId, int tokenEpoch) {
+        return tokenEpoch >= getTokenEpoch(userId);
+    }
+
+    /**
+     * Revokes every token issued to the user so far.
+     *
+     * @param userId the user whose tokens are revoked
+     * @return the new epoch that newly issued tokens have to carry
+     */
+    public int bump(Long userId) {
+        userRepository.incrementTokenEpoch(userId);
+        int tokenEpoch = userRepository.findTokenEpochById(userId);
+        tokenEpochs.merge(userId, tokenEpoch, Math::max);
+        logger.info("Token epoch of user with id '{}' moved to {}", userId, tokenEpoch);
+        return tokenEpoch;
+    }
+}
@@ -0,0 +1,25 @@
+package com.scalefocus.userservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class TokenHasher {
+
+    private TokenHasher() {
+    }
+
+    /**
+     * Tokens are only ever looked up by equality, so a fixed-length SHA-256 hex digest
+     * is stored and indexed instead of the full JWT.
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
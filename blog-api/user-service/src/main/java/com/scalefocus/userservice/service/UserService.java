@@ -4,8 +4,11 @@ package com.scalefocus.userservice.service;
 import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.request.AuthenticationRequest;
 import com.scalefocus.userservice.request.RegisterRequest;
+import com.scalefocus.userservice.request.UserBatchRequest;
 import com.scalefocus.userservice.response.TokenResponse;
 
+import java.util.List;
+
 public interface UserService {
     TokenResponse register(RegisterRequest registerRequest);
 
@@ -14,4 +17,8 @@ public interface UserService {
     UserDto getAuthenticatedUser();
 
     UserDto findById(Long userId);
+
+    List<UserDto> findAllByIds(UserBatchRequest userBatchRequest);
+
+    int getTokenEpoch(Long userId);
 }
\ No newline at end of file
@@ -3,26 +3,35 @@ package com.scalefocus.userservice.service.impl;
 import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.entity.Token;
 import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.exception.BatchTooLargeException;
 import com.scalefocus.userservice.exception.ResourceNotFound;
 import com.scalefocus.userservice.exception.UserExistException;
 import com.scalefocus.userservice.repository.TokenRepository;
 import com.scalefocus.userservice.repository.UserRepository;
 import com.scalefocus.userservice.request.AuthenticationRequest;
 import com.scalefocus.userservice.request.RegisterRequest;
+import com.scalefocus.userservice.request.UserBatchRequest;
 import com.scalefocus.userservice.response.TokenResponse;
 import com.scalefocus.userservice.security.JwtTokenProvider;
+import com.scalefocus.userservice.security.PasswordHashingExecutor;
+import com.scalefocus.userservice.security.TokenEpochCache;
+import com.scalefocus.userservice.security.TokenHasher;
 import com.scalefocus.userservice.service.UserService;
 import com.scalefocus.userservice.utils.SecurityUtil;
+import com.scalefocus.userservice.utils.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 
+import java.util.Date;
 import java.util.List;
 
 @Service
@@ -31,12 +40,18 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LogManager.getLogger(UserServiceImpl.class);
 
+    @Value("${app.user-batch-max-size:500}")
+    private int maxBatchSize;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final TokenRepository tokenRepository;
     private final SecurityUtil securityUtil;
+    private final TokenEpochCache tokenEpochCache;
+    private final UserCache userCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Override
     public TokenResponse register(RegisterRequest registerRequest) {
@@ -46,14 +61,15 @@ public class UserServiceImpl implements UserService {
             logger.error("Username '{}' already exists", registerRequest.getUsername());
             throw new UserExistException("Username already exists");
         }
+        String encodedPassword = passwordHashingExecutor.execute(() -> passwordEncoder.encode(registerRequest.getPassword()));
         User user = User.builder()
                 .username(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(encodedPassword)
                 .displayName(registerRequest.getDisplayName())
                 .build();
 
         User savedUser = userRepository.save(user);
-        String jwtToken = jwtTokenProvider.generateToken(user);
+        String jwtToken = jwtTokenProvider.generateToken(savedUser);
         logger.info("Token generated successfully for the user whose id is {}", savedUser.getId());
         saveToken(savedUser, jwtToken);
         logger.info("User with user id'{}' registered successfully", savedUser.getId());
@@ -63,17 +79,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public TokenResponse login(AuthenticationRequest authenticationRequest) {
-        Authentication authentication = authenticationManager
+        Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(authenticationRequest.getUsername()
-                        , authenticationRequest.getPassword()));
+                        , authenticationRequest.getPassword())));
         logger.info("Authenticated user '{}'", authentication.getPrincipal());
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         User user = userRepository.findByUsername(authenticationRequest.getUsername()).get();
         logger.info("Authenticated user id '{}'", user.getId());
+        setExpiredAllUserTokens(user);
         String token = jwtTokenProvider.generateToken(user);
         logger.info("Token generated successfully for user with id '{}' ", user.getId());
-        setExpiredAllUserTokens(user);
         saveToken(user, token);
         logger.info("Token saved successfully for user with id '{}'", user.getId());
         logger.info("User with id '{}' login successfully", user.getId());
@@ -82,14 +98,34 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getAuthenticatedUser() {
-        User user = securityUtil.getRequestingUser().get();
-        return new UserDto(user.getId(), user.getUsername());
+        return securityUtil.getRequestingUser()
+                .orElseThrow(() -> new ResourceNotFound("User not found"));
+    }
+
+    @Override
+    public int getTokenEpoch(Long userId) {
+        return tokenEpochCache.getTokenEpoch(userId);
     }
 
     @Override
     public UserDto findById(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new ResourceNotFound("User with id '" + userId + "' not found"));
-        return new UserDto(user.getId(), user.getUsername());
+        return userCache.getUser(userId);
+    }
+
+    @Override
+    public List<UserDto> findAllByIds(UserBatchRequest userBatchRequest) {
+        if (CollectionUtils.isEmpty(userBatchRequest.getUserIds())) {
+            return List.of();
+        }
+        if (userBatchRequest.getUserIds().size() > maxBatchSize) {
+            logger.error("Batch of {} users exceeds the limit of {}", userBatchRequest.getUserIds().size(), maxBatchSize);
+            throw new BatchTooLargeException("At most " + maxBatchSize + " users can be requested at once");
+        }
+        List<UserDto> users = userRepository.findAllById(userBatchRequest.getUserIds()).stream()
+                .map(user -> new UserDto(user.getId(), user.getUsername()))
+                .toList();
+        logger.info("Found {} of {} requested users", users.size(), userBatchRequest.getUserIds().size());
+        return users;
     }
 
 
@@ -97,17 +133,15 @@ public class UserServiceImpl implements UserService {
         Token token = Token.builder()
                 .user(user)
                 .isExpired(false)
-                .token(jwtToken)
+                .tokenHash(TokenHasher.hash(jwtToken))
+                .expiresAt(new Date(System.currentTimeMillis() + jwtTokenProvider.getJwtExpirationMilliseconds()))
                 .build();
         tokenRepository.save(token);
     }
 
     private void setExpiredAllUserTokens(User user) {
-        List<Token> allNonExpiredTokens = tokenRepository.findAllNonExpiredTokens(user.getId());
-        if (allNonExpiredTokens.isEmpty()) {
-            return;
-        }
-        allNonExpiredTokens.forEach(token -> token.setExpired(true));
-        tokenRepository.saveAll(allNonExpiredTokens);
+        user.setTokenEpoch(tokenEpochCache.bump(user.getId()));
+        int expiredCount = tokenRepository.expireAllUserTokens(user.getId());
+        logger.info("{} tokens expired for user with id '{}'", expiredCount, user.getId());
     }
 }
\ No newline at end of file
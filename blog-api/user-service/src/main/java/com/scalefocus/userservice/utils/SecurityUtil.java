@@ -1,9 +1,10 @@
 package com.scalefocus.userservice.utils;
 
 
-import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.exception.ResourceNotFound;
 import com.scalefocus.userservice.repository.UserRepository;
+import com.scalefocus.userservice.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,16 +19,20 @@ public class SecurityUtil {
 
     private final UserRepository userRepository;
 
-    public Optional<User> getRequestingUser() {
+    public Optional<UserDto> getRequestingUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication != null && authentication.isAuthenticated()) {
             Object principal = authentication.getPrincipal();
+            if (principal instanceof AuthenticatedUser authenticatedUser) {
+                return Optional.of(new UserDto(authenticatedUser.id(), authenticatedUser.username()));
+            }
             if (!(principal instanceof UserDetails userDetails)) {
                 throw new ResourceNotFound("User not found");
             }
-            return userRepository.findByUsername(userDetails.getUsername());
+            return userRepository.findByUsername(userDetails.getUsername())
+                    .map(user -> new UserDto(user.getId(), user.getUsername()));
         }
         return Optional.empty();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.scalefocus.userservice.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scalefocus.userservice.dto.UserDto;
+import com.scalefocus.userservice.exception.ResourceNotFound;
+import com.scalefocus.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of user records. Entries are evicted by size and after a fixed TTL,
+ * so lookups by id are served from memory in the steady state.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserDto> users;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.user-cache-maximum-size:10000}") long maximumSize,
+                     @Value("${app.user-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserDto getUser(Long userId) {
+        return users.get(userId, this::loadUser);
+    }
+
+    private UserDto loadUser(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> new UserDto(user.getId(), user.getUsername()))
+                .orElseThrow(() -> new ResourceNotFound("User with id '" + userId + "' not found"));
+    }
+}
@@ -0,0 +1,9 @@
+-- Run once on existing databases after the TOKEN.token_hash column has been created.
+USE userdb;
+
+UPDATE TOKEN
+SET token_hash = SHA2(token, 256)
+WHERE token_hash IS NULL
+  AND token IS NOT NULL;
+
+ALTER TABLE TOKEN DROP COLUMN token;
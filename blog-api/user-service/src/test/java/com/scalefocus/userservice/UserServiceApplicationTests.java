@@ -3,14 +3,19 @@ package com.scalefocus.userservice;
 import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.entity.Token;
 import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.job.TokenPurgeJob;
 import com.scalefocus.userservice.repository.TokenRepository;
 import com.scalefocus.userservice.repository.UserRepository;
 import com.scalefocus.userservice.request.AuthenticationRequest;
 import com.scalefocus.userservice.request.RegisterRequest;
 import com.scalefocus.userservice.response.TokenResponse;
+import com.scalefocus.userservice.security.TokenHasher;
 import com.scalefocus.userservice.service.impl.UserServiceImpl;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,13 +25,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.Timestamp;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -37,6 +46,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 class UserServiceApplicationTests extends AbstractMysqlContainer {
 
     public static final String SECRET_KEY = "f07afe0e45657f1df3d7cf9141c39185527363b9e7b47225af954d6ed6a801db";
+    private static final int STALE_TOKENS = 100_000;
+    private static final int PURGE_BATCH_SIZE = 10_000;
 
     @LocalServerPort
     private int portNumber;
@@ -57,6 +68,15 @@ class UserServiceApplicationTests extends AbstractMysqlContainer {
     @Autowired
     private UserServiceImpl userServiceImpl;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TokenPurgeJob tokenPurgeJob;
+
     @BeforeAll
     public static void init() {
         testRestTemplate = new TestRestTemplate();
@@ -75,18 +95,18 @@ class UserServiceApplicationTests extends AbstractMysqlContainer {
         Token token = new Token();
         token.setUser(user);
         token.setExpired(false);
-        token.setToken(jwtToken);
+        token.setTokenHash(TokenHasher.hash(jwtToken));
 
         tokenRepository.save(token);
 
         headers = new HttpHeaders();
-        headers.add("Authorization", "Bearer " + token.getToken());
+        headers.add("Authorization", "Bearer " + jwtToken);
 
     }
 
     @AfterEach
     public void tearDown() {
-        tokenRepository.deleteAll();
+        tokenRepository.deleteAllInBatch();
     }
 
 
@@ -143,6 +163,73 @@ class UserServiceApplicationTests extends AbstractMysqlContainer {
 
     }
 
+    @Test
+    public void testLogin_staysFlat_withManyStaleTokens() {
+        User staleTokenUser = registerUser("stale token user");
+        AuthenticationRequest authenticationRequest = new AuthenticationRequest(staleTokenUser.getUsername(), "test password");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userServiceImpl.login(authenticationRequest);
+        statistics.clear();
+        userServiceImpl.login(authenticationRequest);
+        long baselineStatements = statistics.getPrepareStatementCount();
+
+        insertStaleTokens(staleTokenUser.getId(), STALE_TOKENS, false);
+        jdbcTemplate.execute("ANALYZE TABLE token");
+        statistics.clear();
+        userServiceImpl.login(authenticationRequest);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(baselineStatements);
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN UPDATE token SET is_expired = true WHERE user_id = ? AND is_expired = false", staleTokenUser.getId());
+        assertThat(plan.get("key")).isEqualTo("idx_token_user_expired");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM token WHERE user_id = ? AND is_expired = false",
+                Long.class, staleTokenUser.getId())).isEqualTo(1L);
+    }
+
+    @Test
+    public void testPurgeTokens_drainsManyStaleTokensInBatches() {
+        User staleTokenUser = registerUser("purged token user");
+        insertStaleTokens(staleTokenUser.getId(), STALE_TOKENS, true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int configuredBatchSize = (int) ReflectionTestUtils.getField(tokenPurgeJob, "batchSize");
+        ReflectionTestUtils.setField(tokenPurgeJob, "batchSize", PURGE_BATCH_SIZE);
+        try {
+            statistics.clear();
+            tokenPurgeJob.purgeTokens();
+        } finally {
+            ReflectionTestUtils.setField(tokenPurgeJob, "batchSize", configuredBatchSize);
+        }
+
+        // one id query and one delete per full batch, then the id query that finds nothing
+        int batches = STALE_TOKENS / PURGE_BATCH_SIZE;
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L * batches + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM token WHERE is_expired = true OR expires_at < NOW()",
+                Long.class)).isEqualTo(0L);
+        assertThat(tokenRepository.findByTokenHash(TokenHasher.hash(jwtToken))).isPresent();
+    }
+
+    private User registerUser(String username) {
+        userServiceImpl.register(new RegisterRequest(username, "test password", "test display name"));
+        return userRepository.findByUsername(username).get();
+    }
+
+    /**
+     * Inserts the tokens in one statement. Revoked tokens carry the expired flag; with pastExpiry every
+     * second token is instead unflagged and past its expiration date, the other kind the purge removes.
+     */
+    private void insertStaleTokens(Long userId, int count, boolean pastExpiry) {
+        Timestamp future = new Timestamp(System.currentTimeMillis() + 3_600_000);
+        Timestamp past = new Timestamp(System.currentTimeMillis() - 3_600_000);
+        jdbcTemplate.update("INSERT INTO token (token_hash, is_expired, expires_at, user_id) " +
+                        "WITH RECURSIVE digits (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM digits WHERE n < 999) " +
+                        "SELECT SHA2(CONCAT(?, '-', a.n * 1000 + b.n), 256), " +
+                        "IF(? AND (a.n * 1000 + b.n) % 2 = 1, false, true), " +
+                        "IF(? AND (a.n * 1000 + b.n) % 2 = 1, ?, ?), ? " +
+                        "FROM digits a CROSS JOIN digits b WHERE a.n * 1000 + b.n < ?",
+                userId, pastExpiry, pastExpiry, past, future, userId, count);
+    }
+
     private static String generateToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
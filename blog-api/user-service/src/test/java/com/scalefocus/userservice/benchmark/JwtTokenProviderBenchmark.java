@@ -0,0 +1,76 @@
+package com.scalefocus.userservice.benchmark;
+
+import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the token work done per authenticated request by the old filter
+ * (three parses, key and parser rebuilt every time) with the single-parse pipeline.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.scalefocus.userservice.benchmark.JwtTokenProviderBenchmark -Dexec.classpathScope=test
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET_KEY = "f07afe0e45657f1df3d7cf9141c39185527363b9e7b47225af954d6ed6a801db";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        jwtTokenProvider.setJwtSecretKey(SECRET_KEY);
+        jwtTokenProvider.setJwtExpirationMilliseconds(604800000);
+        jwtTokenProvider.init();
+
+        User user = User.builder().id(3L).username("username1").build();
+        token = jwtTokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public String previousValidationPath() {
+        Jwts.parserBuilder().setSigningKey(key()).build().parse(token);
+        Date expiration = Jwts.parserBuilder().setSigningKey(key()).build()
+                .parseClaimsJws(token).getBody().getExpiration();
+        if (expiration.before(new Date())) {
+            return null;
+        }
+        return Jwts.parserBuilder().setSigningKey(key()).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String singleParseValidationPath() {
+        return jwtTokenProvider.parseToken(token).map(Claims::getSubject).orElse(null);
+    }
+
+    private static Key key() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
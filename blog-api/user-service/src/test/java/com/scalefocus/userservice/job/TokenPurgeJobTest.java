@@ -0,0 +1,57 @@
+package com.scalefocus.userservice.job;
+
+import com.scalefocus.userservice.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class TokenPurgeJobTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @InjectMocks
+    private TokenPurgeJob tokenPurgeJob;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(tokenPurgeJob, "batchSize", 2);
+    }
+
+    @Test
+    public void testPurgeTokens_deletesInBatchesUntilNothingIsLeft() {
+        doReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L))
+                .when(tokenRepository).findPurgeableTokenIds(any(Date.class), any(Pageable.class));
+        doReturn(2, 2, 1).when(tokenRepository).deleteAllByIdIn(anyList());
+
+        tokenPurgeJob.purgeTokens();
+
+        verify(tokenRepository, times(3)).findPurgeableTokenIds(any(Date.class), any(Pageable.class));
+        verify(tokenRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(tokenRepository).deleteAllByIdIn(List.of(3L, 4L));
+        verify(tokenRepository).deleteAllByIdIn(List.of(5L));
+    }
+
+    @Test
+    public void testPurgeTokens_doesNothing_whenNoTokenIsPurgeable() {
+        doReturn(Collections.emptyList())
+                .when(tokenRepository).findPurgeableTokenIds(any(Date.class), any(Pageable.class));
+
+        tokenPurgeJob.purgeTokens();
+
+        verify(tokenRepository, never()).deleteAllByIdIn(anyList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.scalefocus.userservice.security;
+
+import com.scalefocus.userservice.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+public class JwtTokenProviderTest {
+
+    public static final String SECRET_KEY = "f07afe0e45657f1df3d7cf9141c39185527363b9e7b47225af954d6ed6a801db";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        jwtTokenProvider.setJwtSecretKey(SECRET_KEY);
+        jwtTokenProvider.setJwtExpirationMilliseconds(604800000);
+        jwtTokenProvider.init();
+
+        user = User.builder().id(3L).username("username1").build();
+    }
+
+    @Test
+    public void testParseToken_returnClaims_whenTokenIsValid() {
+        String token = jwtTokenProvider.generateToken(user);
+
+        Optional<Claims> claims = jwtTokenProvider.parseToken(token);
+
+        assertThat(claims.isPresent()).isTrue();
+        assertThat(claims.get().getSubject()).isEqualTo(user.getUsername());
+        assertThat(claims.get().get(JwtTokenProvider.USER_ID_CLAIM, Long.class)).isEqualTo(user.getId());
+    }
+
+    @Test
+    public void testParseToken_returnEmpty_whenTokenIsExpired() {
+        jwtTokenProvider.setJwtExpirationMilliseconds(-1000);
+        String token = jwtTokenProvider.generateToken(user);
+
+        assertThat(jwtTokenProvider.parseToken(token).isPresent()).isFalse();
+    }
+
+    @Test
+    public void testParseToken_returnEmpty_whenSignatureIsTampered() {
+        String token = jwtTokenProvider.generateToken(user);
+        String tamperedToken = token.substring(0, token.length() - 2) + "xx";
+
+        assertThat(jwtTokenProvider.parseToken(tamperedToken).isPresent()).isFalse();
+        assertThat(jwtTokenProvider.parseToken("not.a.token").isPresent()).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.scalefocus.userservice.security;
+
+import com.scalefocus.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingExecutor = new PasswordHashingExecutor(meterRegistry, 1, 1, 5000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    public void testExecute_returnsResultAndRecordsHashTime() {
+        String hash = passwordHashingExecutor.execute(() -> "hash");
+
+        assertThat(hash).isEqualTo("hash");
+        assertThat(meterRegistry.get("password.hashing.time").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testExecute_rethrowsTaskException() {
+        assertThrows(BadCredentialsException.class, () -> passwordHashingExecutor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        }));
+    }
+
+    @Test
+    public void testExecute_rejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "running";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> passwordHashingExecutor.execute(() -> "queued"));
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingExecutor.execute(() -> "rejected"));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
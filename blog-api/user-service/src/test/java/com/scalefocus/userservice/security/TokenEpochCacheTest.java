@@ -0,0 +1,61 @@
+package com.scalefocus.userservice.security;
+
+import com.scalefocus.userservice.repository.UserRepository;
+import com.scalefocus.userservice.repository.UserTokenEpoch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TokenEpochCacheTest {
+
+    private static final Long USER_ID = 3L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TokenEpochCache tokenEpochCache;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testTokenIsActive_whenUserEpochNeverMoved() {
+        assertThat(tokenEpochCache.isActive(USER_ID, 0)).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testBump_revokesTokensWithOlderEpoch() {
+        doReturn(1).when(userRepository).findTokenEpochById(USER_ID);
+
+        int tokenEpoch = tokenEpochCache.bump(USER_ID);
+
+        verify(userRepository).incrementTokenEpoch(USER_ID);
+        assertThat(tokenEpoch).isEqualTo(1);
+        assertThat(tokenEpochCache.isActive(USER_ID, 0)).isFalse();
+        assertThat(tokenEpochCache.isActive(USER_ID, 1)).isTrue();
+    }
+
+    @Test
+    public void testRefresh_loadsEpochsBumpedByOtherInstances() {
+        UserTokenEpoch userTokenEpoch = mock(UserTokenEpoch.class);
+        doReturn(USER_ID).when(userTokenEpoch).getId();
+        doReturn(4).when(userTokenEpoch).getTokenEpoch();
+        doReturn(List.of(userTokenEpoch)).when(userRepository).findAllTokenEpochs();
+
+        tokenEpochCache.refresh();
+
+        assertThat(tokenEpochCache.getTokenEpoch(USER_ID)).isEqualTo(4);
+        assertThat(tokenEpochCache.isActive(USER_ID, 3)).isFalse();
+    }
+}
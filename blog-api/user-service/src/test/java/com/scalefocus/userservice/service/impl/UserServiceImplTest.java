@@ -4,14 +4,20 @@ package com.scalefocus.userservice.service.impl;
 import com.scalefocus.userservice.dto.UserDto;
 import com.scalefocus.userservice.entity.Token;
 import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.exception.BatchTooLargeException;
 import com.scalefocus.userservice.exception.UserExistException;
 import com.scalefocus.userservice.repository.TokenRepository;
 import com.scalefocus.userservice.repository.UserRepository;
 import com.scalefocus.userservice.request.AuthenticationRequest;
 import com.scalefocus.userservice.request.RegisterRequest;
+import com.scalefocus.userservice.request.UserBatchRequest;
 import com.scalefocus.userservice.response.TokenResponse;
 import com.scalefocus.userservice.security.JwtTokenProvider;
+import com.scalefocus.userservice.security.PasswordHashingExecutor;
+import com.scalefocus.userservice.security.TokenEpochCache;
+import com.scalefocus.userservice.security.TokenHasher;
 import com.scalefocus.userservice.utils.SecurityUtil;
+import com.scalefocus.userservice.utils.UserCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -20,16 +26,24 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class UserServiceImplTest {
 
@@ -46,6 +60,12 @@ public class UserServiceImplTest {
     private SecurityUtil securityUtil;
     @Mock
     private TokenRepository tokenRepository;
+    @Mock
+    private TokenEpochCache tokenEpochCache;
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
 
     @InjectMocks
     private UserServiceImpl userServiceImpl;
@@ -62,6 +82,9 @@ public class UserServiceImplTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userServiceImpl, "maxBatchSize", 500);
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get())
+                .when(passwordHashingExecutor).execute(any());
 
         registerRequest = new RegisterRequest();
         registerRequest.setUsername("username");
@@ -83,7 +106,7 @@ public class UserServiceImplTest {
 
         token = new Token();
         token.setId(1L);
-        token.setToken(jwtToken);
+        token.setTokenHash(TokenHasher.hash(jwtToken));
         token.setUser(user);
         token.setExpired(false);
 
@@ -105,7 +128,7 @@ public class UserServiceImplTest {
         TokenResponse tokenResponse = userServiceImpl.register(registerRequest);
 
         assertThat(tokenResponse).isNotNull();
-        assertThat(token.getToken()).isEqualTo(jwtToken);
+        assertThat(token.getTokenHash()).isEqualTo(TokenHasher.hash(jwtToken));
     }
 
     @Test
@@ -125,18 +148,23 @@ public class UserServiceImplTest {
         doReturn(authenticationToken).when(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         doReturn(Optional.of(user)).when(userRepository).findByUsername(authenticationRequest.getUsername());
         doReturn(jwtToken).when(jwtTokenProvider).generateToken(any(User.class));
-        doReturn(tokenList).when(tokenRepository).saveAll(anyList());
+        doReturn(tokenList.size()).when(tokenRepository).expireAllUserTokens(any());
+        doReturn(2).when(tokenEpochCache).bump(any());
 
         TokenResponse userLoginToken = userServiceImpl.login(authenticationRequest);
 
         assertThat(userLoginToken).isNotNull();
         assertThat(userLoginToken.getToken()).isNotNull();
         assertThat(userLoginToken.getToken()).isEqualTo(jwtToken);
+        assertThat(user.getTokenEpoch()).isEqualTo(2);
+        verify(tokenEpochCache).bump(user.getId());
+        verify(tokenRepository).expireAllUserTokens(user.getId());
+        verify(tokenRepository, never()).saveAll(anyList());
     }
 
     @Test
     public void testGettingAuthenticatedUser() {
-        doReturn(Optional.of(user)).when(securityUtil).getRequestingUser();
+        doReturn(Optional.of(new UserDto(user.getId(), user.getUsername()))).when(securityUtil).getRequestingUser();
 
         UserDto authenticatedUser = userServiceImpl.getAuthenticatedUser();
         assertThat(authenticatedUser).isNotNull();
@@ -146,10 +174,32 @@ public class UserServiceImplTest {
 
     @Test
     public void testFindUserById() {
-        doReturn(Optional.of(user)).when(userRepository).findById(anyLong());
+        doReturn(new UserDto(user.getId(), user.getUsername())).when(userCache).getUser(anyLong());
         UserDto userDto = userServiceImpl.findById(1L);
 
         assertThat(userDto).isNotNull();
         assertEquals(userDto.getUsername(), user.getUsername());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testFindUsersByIds_usesSingleQuery() {
+        user.setId(1L);
+        doReturn(List.of(user)).when(userRepository).findAllById(anySet());
+
+        List<UserDto> users = userServiceImpl.findAllByIds(new UserBatchRequest(Set.of(1L, 2L)));
+
+        assertEquals(1, users.size());
+        assertEquals(user.getUsername(), users.get(0).getUsername());
+        verify(userRepository).findAllById(Set.of(1L, 2L));
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testFindUsersByIds_rejectsOversizedBatch() {
+        Set<Long> userIds = LongStream.rangeClosed(1, 501).boxed().collect(Collectors.toSet());
+
+        assertThrows(BatchTooLargeException.class, () -> userServiceImpl.findAllByIds(new UserBatchRequest(userIds)));
+        verify(userRepository, never()).findAllById(anySet());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.scalefocus.userservice.utils;
+
+import com.scalefocus.userservice.dto.UserDto;
+import com.scalefocus.userservice.entity.User;
+import com.scalefocus.userservice.exception.ResourceNotFound;
+import com.scalefocus.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserCache userCache;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userCache = new UserCache(userRepository, 10, 60);
+    }
+
+    @Test
+    public void testGetUser_loadsUserOnlyOnce() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("test");
+        doReturn(Optional.of(user)).when(userRepository).findById(USER_ID);
+
+        UserDto first = userCache.getUser(USER_ID);
+        UserDto second = userCache.getUser(USER_ID);
+
+        assertThat(first.getUsername()).isEqualTo("test");
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findById(USER_ID);
+    }
+
+    @Test
+    public void testGetUser_throwsWhenUserIsMissing() {
+        doReturn(Optional.empty()).when(userRepository).findById(USER_ID);
+
+        assertThrows(ResourceNotFound.class, () -> userCache.getUser(USER_ID));
+    }
+}